@@ -0,0 +1,52 @@
+#!/bin/bash
+
+# Lasttest für die I/O-lastigen Endpunkte (Hugging Face, PokéAPI)
+#
+# Vergleich Plattform-Threads vs. virtuelle Threads:
+#   1. ./start-app.sh                                 dann ./load-test.sh platform
+#   2. VIRTUAL_THREADS_ENABLED=true ./start-app.sh    dann ./load-test.sh virtual
+#
+# Benötigt "hey" (https://github.com/rakyll/hey), curl und jq.
+# Konfigurierbar über BASE_URL, CONCURRENCY, REQUESTS, ADMIN_USER, ADMIN_PASSWORD.
+
+set -e
+
+MODE=${1:-unknown}
+BASE_URL=${BASE_URL:-http://localhost:8080}
+CONCURRENCY=${CONCURRENCY:-200}
+REQUESTS=${REQUESTS:-2000}
+ADMIN_USER=${ADMIN_USER:-admin}
+ADMIN_PASSWORD=${ADMIN_PASSWORD:-admin123}
+
+for tool in hey curl jq; do
+    if ! command -v $tool > /dev/null; then
+        echo "$tool is required for the load test"
+        exit 1
+    fi
+done
+
+echo "Load test against $BASE_URL (mode: $MODE, concurrency: $CONCURRENCY)"
+
+TOKEN=$(curl -s -X POST "$BASE_URL/api/auth/login" \
+    -H "Content-Type: application/json" \
+    -d "{\"username\":\"$ADMIN_USER\",\"password\":\"$ADMIN_PASSWORD\"}" | jq -r .token)
+
+# Evolutionskette: PokéAPI-Aufrufe beim ersten Zugriff, danach Cache/Snapshot
+echo
+echo "== GET /api/pokemons/{id}/evolution-chain =="
+hey -n $REQUESTS -c $CONCURRENCY "$BASE_URL/api/pokemons/025/evolution-chain" | grep -E "Requests/sec|Average|99%|\[[0-9]+\]"
+
+# Bildgenerierung: blockiert pro Anfrage bis zu zwei Minuten auf Hugging Face,
+# daher deutlich weniger Anfragen
+echo
+echo "== POST /api/characters/generate =="
+hey -n $((CONCURRENCY / 4)) -c $((CONCURRENCY / 4)) -t 180 -m POST \
+    -H "Authorization: Bearer $TOKEN" \
+    -H "Content-Type: application/json" \
+    -d '{"baseAnimal":"FOX","elementType":"FIRE","dominantColor":"RED","styleType":"POKEMON","traits":[]}' \
+    "$BASE_URL/api/characters/generate" | grep -E "Requests/sec|Average|99%|\[[0-9]+\]"
+
+# Tomcat-Threads während des Tests (nur Plattform-Threads werden hier gezählt)
+echo
+echo "== JVM threads =="
+curl -s "$BASE_URL/actuator/metrics/jvm.threads.live" | jq '.measurements[0].value'
@@ -0,0 +1,148 @@
+package com.celinepokedex.client;
+
+import com.celinepokedex.config.CacheConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Client für die PokéAPI.
+ *
+ * Die Lookups sind public und liegen in einer eigenen Bean, damit Aufrufe aus
+ * PokemonEvolutionService durch den Cache-Proxy laufen. Die load-Methoden laden
+ * ungecacht; CacheConfig nutzt sie als Loader für Misses und Refreshes.
+ *
+ * Unter den In-Memory-Caches liegt PokeApiResponseStore als persistente Stufe:
+ * frische Antworten kommen von der Platte, veraltete werden per ETag bzw.
+ * Last-Modified revalidiert.
+ */
+@Component
+public class PokeApiClient {
+
+    private static final Logger logger = Logger.getLogger(PokeApiClient.class.getName());
+
+    private static final String POKEAPI_EVOLUTION_URL = "https://pokeapi.co/api/v2/evolution-chain/";
+    private static final String POKEAPI_POKEMON_URL = "https://pokeapi.co/api/v2/pokemon/";
+    private static final String POKEAPI_SPECIES_URL = "https://pokeapi.co/api/v2/pokemon-species/";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final PokeApiResponseStore responseStore;
+
+    private final Counter pokemonRequests;
+    private final Counter speciesRequests;
+    private final Counter evolutionChainRequests;
+
+    public PokeApiClient(RestTemplate restTemplate, ObjectMapper objectMapper,
+                         PokeApiResponseStore responseStore, MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.responseStore = responseStore;
+        this.pokemonRequests = requestCounter(meterRegistry, "pokemon");
+        this.speciesRequests = requestCounter(meterRegistry, "species");
+        this.evolutionChainRequests = requestCounter(meterRegistry, "evolution-chain");
+    }
+
+    /**
+     * Ruft Pokemon-Daten von der PokeAPI ab mit Caching
+     */
+    @Cacheable(value = CacheConfig.POKEAPI_POKEMON_CACHE, key = "#pokedexNumber")
+    public JsonNode fetchPokemon(String pokedexNumber) throws IOException {
+        return loadPokemon(pokedexNumber);
+    }
+
+    /**
+     * Ruft Pokemon-Species-Daten von der PokeAPI ab mit Caching
+     */
+    @Cacheable(value = CacheConfig.POKEAPI_SPECIES_CACHE, key = "#pokedexNumber")
+    public JsonNode fetchSpecies(String pokedexNumber) throws IOException {
+        return loadSpecies(pokedexNumber);
+    }
+
+    /**
+     * Ruft die rohe Evolutionskette von der PokeAPI ab mit Caching.
+     * Gecacht wird das JSON, nicht die daraus gebaute EvolutionChain, weil deren
+     * Pokémon-Objekte pro Anfrage mit lokalen Daten angereichert werden.
+     */
+    @Cacheable(value = CacheConfig.POKEAPI_EVOLUTION_CHAIN_CACHE, key = "#chainId")
+    public JsonNode fetchEvolutionChain(Integer chainId) throws IOException {
+        return loadEvolutionChain(chainId);
+    }
+
+    public JsonNode loadPokemon(String pokedexNumber) throws IOException {
+        return fetch(POKEAPI_POKEMON_URL + pokedexNumber, pokemonRequests);
+    }
+
+    public JsonNode loadSpecies(String pokedexNumber) throws IOException {
+        return fetch(POKEAPI_SPECIES_URL + pokedexNumber, speciesRequests);
+    }
+
+    public JsonNode loadEvolutionChain(Integer chainId) throws IOException {
+        return fetch(POKEAPI_EVOLUTION_URL + chainId, evolutionChainRequests);
+    }
+
+    private JsonNode fetch(String url, Counter requests) throws IOException {
+        Optional<PokeApiResponseStore.StoredResponse> stored = responseStore.get(url);
+        if (stored.isPresent() && !stored.get().stale()) {
+            return objectMapper.readTree(stored.get().body());
+        }
+
+        // Bedingter Request, wenn eine veraltete Antwort auf der Platte liegt
+        HttpHeaders headers = new HttpHeaders();
+        stored.ifPresent(response -> {
+            if (response.etag() != null) {
+                headers.setIfNoneMatch(response.etag());
+            } else if (response.lastModified() != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, response.lastModified());
+            }
+        });
+
+        ResponseEntity<byte[]> response;
+        try {
+            requests.increment();
+            response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        } catch (RestClientException e) {
+            if (stored.isPresent()) {
+                // PokéAPI nicht erreichbar - lieber veraltete Daten als keine
+                logger.warning("PokéAPI request failed, serving stored response for " + url + ": " + e.getMessage());
+                return objectMapper.readTree(stored.get().body());
+            }
+            throw e;
+        }
+
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && stored.isPresent()) {
+            responseStore.markRevalidated(url);
+            return objectMapper.readTree(stored.get().body());
+        }
+
+        byte[] body = response.getBody();
+        if (body == null) {
+            throw new IOException("Empty response from " + url);
+        }
+        responseStore.put(url, body, response.getHeaders().getETag(),
+                response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED));
+        return objectMapper.readTree(body);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String resource) {
+        return Counter.builder("pokeapi.requests")
+                .description("HTTP requests sent to the PokéAPI (cache misses and refreshes)")
+                .tag("resource", resource)
+                .register(meterRegistry);
+    }
+}
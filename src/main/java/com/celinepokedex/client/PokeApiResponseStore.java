@@ -0,0 +1,285 @@
+package com.celinepokedex.client;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Persistent second cache tier for raw PokéAPI responses, keyed by URL.
+ *
+ * Responses are appended to a single log file; an in-memory index maps each URL to the position
+ * of its latest body. The index is rebuilt by scanning the log at startup, and the log is
+ * compacted when most of it is superseded records. Revalidations (HTTP 304) append a small
+ * record without a body that refreshes the timestamp of the previous one.
+ */
+@Component
+public class PokeApiResponseStore {
+
+    private static final Logger logger = Logger.getLogger(PokeApiResponseStore.class.getName());
+
+    private static final byte RECORD_FULL = 1;
+    private static final byte RECORD_REVALIDATED = 2;
+
+    // Kompaktieren, wenn mehr als die Hälfte der Datei aus überholten Einträgen besteht
+    private static final long COMPACTION_MIN_BYTES = 16L * 1024 * 1024;
+
+    private final boolean enabled;
+    private final Path path;
+    private final Duration revalidateAfter;
+
+    private final Map<String, IndexEntry> index = new ConcurrentHashMap<>();
+    // Lock statt synchronized, damit virtuelle Threads beim Schreiben nicht ihren Carrier-Thread blockieren
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private volatile FileChannel channel;
+    private long liveBytes;
+
+    public PokeApiResponseStore(@Value("${pokeapi.disk-store.enabled:true}") boolean enabled,
+                                @Value("${pokeapi.disk-store.path:data/pokeapi-responses.log}") String path,
+                                @Value("${pokeapi.disk-store.revalidate-after:7d}") Duration revalidateAfter) {
+        this.enabled = enabled;
+        this.path = Paths.get(path);
+        this.revalidateAfter = revalidateAfter;
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            logger.info("PokéAPI disk store disabled");
+            return;
+        }
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long start = System.nanoTime();
+            loadIndex();
+            if (channel.size() > COMPACTION_MIN_BYTES && channel.size() > 2 * liveBytes) {
+                compact();
+            }
+            logger.info("PokéAPI disk store opened with " + index.size() + " responses in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms: " + path.toAbsolutePath());
+        } catch (IOException e) {
+            logger.warning("PokéAPI disk store unavailable, continuing without it: " + e.getMessage());
+            closeQuietly();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        closeQuietly();
+    }
+
+    /**
+     * Returns the stored response for a URL, if any
+     */
+    public Optional<StoredResponse> get(String url) {
+        IndexEntry entry = index.get(url);
+        if (entry == null || channel == null) {
+            return Optional.empty();
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(entry.bodyLength);
+            long position = entry.bodyOffset;
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position + buffer.position());
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file");
+                }
+            }
+            return Optional.of(new StoredResponse(buffer.array(), entry.etag, entry.lastModified,
+                    System.currentTimeMillis() - entry.storedAt > revalidateAfter.toMillis()));
+        } catch (IOException e) {
+            logger.warning("Could not read stored response for " + url + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a freshly fetched response body
+     */
+    public void put(String url, byte[] body, String etag, String lastModified) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            append(url, RECORD_FULL, body, etag, lastModified);
+        } catch (IOException e) {
+            logger.warning("Could not store response for " + url + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Marks a stored response as fresh again after the server answered 304 Not Modified
+     */
+    public void markRevalidated(String url) {
+        IndexEntry entry = index.get(url);
+        if (channel == null || entry == null) {
+            return;
+        }
+        try {
+            append(url, RECORD_REVALIDATED, new byte[0], entry.etag, entry.lastModified);
+        } catch (IOException e) {
+            logger.warning("Could not mark response as revalidated for " + url + ": " + e.getMessage());
+        }
+    }
+
+    private void append(String url, byte type, byte[] body, String etag, String lastModified) throws IOException {
+        appendLock.lock();
+        try {
+            appendRecord(url, type, body, etag, lastModified);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void appendRecord(String url, byte type, byte[] body, String etag, String lastModified) throws IOException {
+        long storedAt = System.currentTimeMillis();
+        byte[] header = encodeHeader(type, url, etag, lastModified, storedAt, body.length);
+
+        ByteBuffer record = ByteBuffer.allocate(4 + header.length + body.length);
+        record.putInt(header.length + body.length).put(header).put(body).flip();
+
+        long position = channel.size();
+        while (record.hasRemaining()) {
+            channel.write(record, position + record.position());
+        }
+
+        if (type == RECORD_FULL) {
+            IndexEntry previous = index.put(url, new IndexEntry(position + 4 + header.length, body.length, etag, lastModified, storedAt));
+            liveBytes += body.length - (previous != null ? previous.bodyLength : 0);
+        } else {
+            IndexEntry previous = index.get(url);
+            index.put(url, new IndexEntry(previous.bodyOffset, previous.bodyLength, etag, lastModified, storedAt));
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        while (position + 4 <= size) {
+            lengthBuffer.clear();
+            channel.read(lengthBuffer, position);
+            int recordLength = lengthBuffer.flip().getInt();
+            if (recordLength <= 0 || position + 4 + recordLength > size) {
+                break;
+            }
+
+            // Nur den Header lesen; der Body bleibt auf der Platte
+            ByteBuffer headerBuffer = ByteBuffer.allocate((int) Math.min(recordLength, 64 * 1024));
+            channel.read(headerBuffer, position + 4);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(headerBuffer.array(), 0, headerBuffer.position()));
+            byte type = in.readByte();
+            String url = in.readUTF();
+            String etag = emptyToNull(in.readUTF());
+            String lastModified = emptyToNull(in.readUTF());
+            long storedAt = in.readLong();
+            int bodyLength = in.readInt();
+            int headerLength = recordLength - bodyLength;
+
+            if (type == RECORD_FULL) {
+                IndexEntry previous = index.put(url, new IndexEntry(position + 4 + headerLength, bodyLength, etag, lastModified, storedAt));
+                liveBytes += bodyLength - (previous != null ? previous.bodyLength : 0);
+            } else if (index.containsKey(url)) {
+                IndexEntry previous = index.get(url);
+                index.put(url, new IndexEntry(previous.bodyOffset, previous.bodyLength, etag, lastModified, storedAt));
+            }
+            position += 4 + recordLength;
+        }
+
+        // Unvollständigen letzten Eintrag (z.B. nach einem Absturz) abschneiden
+        if (position < size) {
+            logger.warning("Truncating incomplete record at end of PokéAPI disk store");
+            channel.truncate(position);
+        }
+    }
+
+    private void compact() throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        Map<String, IndexEntry> newIndex = new ConcurrentHashMap<>();
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = 0;
+            for (Map.Entry<String, IndexEntry> e : index.entrySet()) {
+                IndexEntry entry = e.getValue();
+                byte[] header = encodeHeader(RECORD_FULL, e.getKey(), entry.etag, entry.lastModified, entry.storedAt, entry.bodyLength);
+                ByteBuffer prefix = ByteBuffer.allocate(4 + header.length);
+                prefix.putInt(header.length + entry.bodyLength).put(header).flip();
+                while (prefix.hasRemaining()) {
+                    out.write(prefix, position + prefix.position());
+                }
+                long bodyOffset = position + 4 + header.length;
+                long transferred = 0;
+                while (transferred < entry.bodyLength) {
+                    transferred += channel.transferTo(entry.bodyOffset + transferred, entry.bodyLength - transferred, out.position(bodyOffset + transferred));
+                }
+                newIndex.put(e.getKey(), new IndexEntry(bodyOffset, entry.bodyLength, entry.etag, entry.lastModified, entry.storedAt));
+                position = bodyOffset + entry.bodyLength;
+            }
+            out.force(true);
+        }
+        channel.close();
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index.clear();
+        index.putAll(newIndex);
+        logger.info("Compacted PokéAPI disk store to " + channel.size() + " bytes");
+    }
+
+    private static byte[] encodeHeader(byte type, String url, String etag, String lastModified, long storedAt, int bodyLength) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(type);
+        out.writeUTF(url);
+        out.writeUTF(etag != null ? etag : "");
+        out.writeUTF(lastModified != null ? lastModified : "");
+        out.writeLong(storedAt);
+        out.writeInt(bodyLength);
+        return bytes.toByteArray();
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private void closeQuietly() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Beim Herunterfahren nicht relevant
+            }
+            channel = null;
+        }
+    }
+
+    private record IndexEntry(long bodyOffset, int bodyLength, String etag, String lastModified, long storedAt) {
+    }
+
+    /**
+     * A response read from disk; stale responses should be revalidated before use
+     */
+    public record StoredResponse(byte[] body, String etag, String lastModified, boolean stale) {
+    }
+}
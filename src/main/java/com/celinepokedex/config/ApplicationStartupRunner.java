@@ -26,7 +26,7 @@ public class ApplicationStartupRunner implements CommandLineRunner {
     public void run(String... args) throws Exception {
         logger.info("Application started, running startup tasks...");
         
-        // Run image migration to ensure all images are in Cloudinary
-        imageMigrationService.migrateAllImages();
+        // Run image migration in the background to ensure all images are in Cloudinary
+        imageMigrationService.startMigration();
     }
 }
\ No newline at end of file
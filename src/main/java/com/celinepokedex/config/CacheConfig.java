@@ -1,13 +1,32 @@
 package com.celinepokedex.config;
 
+import com.celinepokedex.client.PokeApiClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
-import java.util.Arrays;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
 
+/**
+ * Caches for PokéAPI responses.
+ *
+ * Each cache is bounded by the estimated heap size of its JsonNode trees, expires entries after
+ * a TTL and reloads them in the background after the refresh interval. Statistics are recorded,
+ * so Actuator exports cache.gets, cache.puts, cache.evictions and cache.size per cache.
+ */
 @Configuration
 @EnableCaching
 public class CacheConfig {
@@ -16,14 +35,80 @@ public class CacheConfig {
     public static final String POKEAPI_SPECIES_CACHE = "pokeapiSpeciesCache";
     public static final String POKEAPI_EVOLUTION_CHAIN_CACHE = "pokeapiEvolutionChainCache";
 
+    // Grobe Schätzwerte für den Heap-Verbrauch eines JsonNode-Baums
+    private static final int NODE_OVERHEAD_BYTES = 32;
+    private static final int FIELD_OVERHEAD_BYTES = 48;
+    private static final int STRING_OVERHEAD_BYTES = 40;
+
+    @Value("${pokeapi.cache.pokemon.max-size:64MB}")
+    private DataSize pokemonMaxSize;
+
+    @Value("${pokeapi.cache.species.max-size:32MB}")
+    private DataSize speciesMaxSize;
+
+    @Value("${pokeapi.cache.evolution-chain.max-size:8MB}")
+    private DataSize evolutionChainMaxSize;
+
+    @Value("${pokeapi.cache.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${pokeapi.cache.refresh-after:12h}")
+    private Duration refreshAfter;
+
+    /**
+     * The client is looked up lazily: it is itself proxied by this cache manager and depends on
+     * the MeterRegistry, which in turn binds the caches of this manager.
+     */
     @Bean
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        cacheManager.setCacheNames(Arrays.asList(
-            POKEAPI_POKEMON_CACHE, 
-            POKEAPI_SPECIES_CACHE,
-            POKEAPI_EVOLUTION_CHAIN_CACHE
-        ));
+    public CacheManager cacheManager(ObjectProvider<PokeApiClient> pokeApiClient) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(POKEAPI_POKEMON_CACHE,
+                buildCache(pokemonMaxSize, key -> pokeApiClient.getObject().loadPokemon((String) key)));
+        cacheManager.registerCustomCache(POKEAPI_SPECIES_CACHE,
+                buildCache(speciesMaxSize, key -> pokeApiClient.getObject().loadSpecies((String) key)));
+        cacheManager.registerCustomCache(POKEAPI_EVOLUTION_CHAIN_CACHE,
+                buildCache(evolutionChainMaxSize, key -> pokeApiClient.getObject().loadEvolutionChain((Integer) key)));
         return cacheManager;
     }
-}
\ No newline at end of file
+
+    private LoadingCache<Object, Object> buildCache(DataSize maxSize, CacheLoader<Object, Object> loader) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Object key, Object value) -> estimateBytes(value))
+                .expireAfterWrite(ttl)
+                .refreshAfterWrite(refreshAfter)
+                .recordStats()
+                .build(loader);
+    }
+
+    /**
+     * Estimates the retained heap size of a cached value in bytes
+     */
+    private static int estimateBytes(Object value) {
+        if (!(value instanceof JsonNode root)) {
+            return NODE_OVERHEAD_BYTES;
+        }
+
+        long bytes = 0;
+        Deque<JsonNode> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            JsonNode node = pending.pop();
+            bytes += NODE_OVERHEAD_BYTES;
+            if (node.isObject()) {
+                Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    bytes += FIELD_OVERHEAD_BYTES + STRING_OVERHEAD_BYTES + field.getKey().length();
+                    pending.push(field.getValue());
+                }
+            } else if (node.isArray()) {
+                bytes += 8L * node.size();
+                node.forEach(pending::push);
+            } else if (node.isTextual()) {
+                bytes += STRING_OVERHEAD_BYTES + node.textValue().length();
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,84 @@
+package com.celinepokedex.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executors for background work that must not block servlet threads.
+ *
+ * With spring.threads.virtual.enabled=true (Tomcat then also handles requests on virtual
+ * threads) the workers are virtual threads as well. Pool size and queue stay bounded in both
+ * modes, because they limit the concurrent calls to Hugging Face, not the number of OS threads.
+ *
+ * Also enables @Scheduled for periodic background tasks (e.g. polling the shared catalogue versions).
+ */
+@Configuration
+@EnableScheduling
+public class ExecutorConfig {
+
+    /**
+     * Runs image generation jobs. Bounded in threads and queue; when both are full,
+     * submissions are rejected instead of piling up behind Hugging Face.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor imageGenerationExecutor(
+            @Value("${image-generation.executor.threads:2}") int threads,
+            @Value("${image-generation.executor.queue-capacity:20}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("image-generation-", 1).factory());
+        }
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-generation-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Uploads images during the background image migration. Tasks beyond the queue run on the
+     * submitting thread, which slows down paging instead of failing.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor imageMigrationExecutor(
+            @Value("${image-migration.threads:4}") int threads,
+            @Value("${image-migration.batch-size:20}") int batchSize,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("image-migration-", 1).factory());
+        }
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(batchSize);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("image-migration-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Checks login passwords with BCrypt. BCrypt is CPU-bound by design, so this pool always uses
+     * a few platform threads: a login burst can occupy at most these cores, and attempts beyond
+     * the queue are rejected at once instead of waiting for a free thread.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor(
+            @Value("${auth.password-hashing.threads:2}") int threads,
+            @Value("${auth.password-hashing.queue-capacity:16}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
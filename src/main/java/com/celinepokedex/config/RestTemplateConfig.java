@@ -1,14 +1,109 @@
 package com.celinepokedex.config;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
+/**
+ * Outbound HTTP clients.
+ *
+ * All RestTemplates share one pooled Apache HttpClient 5 connection manager, so connections
+ * (and their TLS sessions) to pokeapi.co, Hugging Face and others are kept alive and reused.
+ * Responses are transparently gzip/deflate-decoded by HttpClient.
+ */
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${http.client.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${http.client.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${http.client.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${http.client.connection-request-timeout:10s}")
+    private Duration connectionRequestTimeout;
+
+    @Value("${http.client.read-timeout:15s}")
+    private Duration readTimeout;
+
+    @Value("${http.client.idle-timeout:30s}")
+    private Duration idleTimeout;
+
+    @Value("${http.client.connection-ttl:5m}")
+    private Duration connectionTimeToLive;
+
+    @Value("${image-generation.read-timeout:120s}")
+    private Duration imageGenerationReadTimeout;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(connectionTimeToLive))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Exports httpcomponents.httpclient.pool.* metrics (leased, available, pending connections)
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public MeterBinder httpConnectionPoolMetrics(PoolingHttpClientConnectionManager httpConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(httpConnectionManager, "outbound");
+    }
+
+    /**
+     * Default client for short API calls such as the PokéAPI
+     */
+    @Bean
+    @Primary
+    public RestTemplate restTemplate(PoolingHttpClientConnectionManager httpConnectionManager) {
+        return new RestTemplate(requestFactory(httpConnectionManager, readTimeout));
+    }
+
+    /**
+     * Client for Hugging Face image generation, which can take up to two minutes per request
+     */
+    @Bean
+    public RestTemplate imageGenerationRestTemplate(PoolingHttpClientConnectionManager httpConnectionManager) {
+        return new RestTemplate(requestFactory(httpConnectionManager, imageGenerationReadTimeout));
+    }
+
+    private HttpComponentsClientHttpRequestFactory requestFactory(PoolingHttpClientConnectionManager connectionManager,
+                                                                  Duration responseTimeout) {
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.of(responseTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .evictExpiredConnections()
+                .build();
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package com.celinepokedex.config;
+
+import com.celinepokedex.repository.FantasyCharacterRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.logging.Logger;
+
+/**
+ * Creates the PostgreSQL full-text index for the character search.
+ * The table itself is created by Hibernate, so the index cannot live in data.sql.
+ */
+@Component
+@Order(0)
+public class SearchIndexInitializer implements ApplicationRunner {
+    
+    private static final Logger logger = Logger.getLogger(SearchIndexInitializer.class.getName());
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public SearchIndexInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_fantasy_characters_search " +
+                    "ON fantasy_characters USING GIN (" + FantasyCharacterRepository.SEARCH_VECTOR + ")");
+            logger.info("Full-text search index for fantasy characters is ready");
+        } catch (DataAccessException e) {
+            // Suche funktioniert auch ohne Index, nur langsamer
+            logger.warning("Could not create full-text search index: " + e.getMessage());
+        }
+    }
+}
@@ -1,35 +1,61 @@
 package com.celinepokedex.controller;
 
+import com.celinepokedex.security.LoginThrottle;
 import com.celinepokedex.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
     private final AuthService authService;
+    private final LoginThrottle loginThrottle;
 
     @Autowired
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, LoginThrottle loginThrottle) {
         this.authService = authService;
+        this.loginThrottle = loginThrottle;
     }
 
+    // Das Passwort wird im Passwort-Pool geprüft; der Tomcat-Thread ist bis dahin wieder frei
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> login(@RequestBody Map<String, String> request) {
+    public CompletableFuture<ResponseEntity<Map<String, String>>> login(@RequestBody Map<String, String> request,
+                                                                         HttpServletRequest httpRequest) {
         String username = request.get("username");
         String password = request.get("password");
+
+        // Hinter dem Load Balancer ist das die Client-IP aus X-Forwarded-For (server.forward-headers-strategy=native),
+        // sofern die Anfrage von einem vertrauenswürdigen Proxy kommt
+        Duration wait = loginThrottle.tryAcquire(username, httpRequest.getRemoteAddr());
+        if (!wait.isZero()) {
+            return CompletableFuture.completedFuture(retryLater(HttpStatus.TOO_MANY_REQUESTS,
+                    LoginThrottle.toRetryAfterSeconds(wait), "Too many login attempts"));
+        }
+
         try {
-            Map<String, String> tokenData = authService.login(username, password);
-            return ResponseEntity.ok(tokenData);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid credentials"));
+            return authService.login(username, password)
+                    .thenApply(ResponseEntity::ok)
+                    .exceptionally(e -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid credentials")));
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.completedFuture(retryLater(HttpStatus.SERVICE_UNAVAILABLE, 1, "Login is busy, please retry"));
         }
     }
 
+    private static ResponseEntity<Map<String, String>> retryLater(HttpStatus status, long retryAfterSeconds, String error) {
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Map.of("error", error));
+    }
+
     // Registrierung-Endpoint abschalten oder Fehler zurückgeben
     @PostMapping("/register")
     public ResponseEntity<Map<String, String>> register(@RequestBody Map<String, String> request) {
@@ -1,52 +1,149 @@
 package com.celinepokedex.controller;
 
 import com.celinepokedex.controller.request.FantasyCharacterGenerationRequest;
+import com.celinepokedex.controller.response.PageResponse;
 import com.celinepokedex.model.FantasyCharacter;
+import com.celinepokedex.model.FantasyCharacterCard;
+import com.celinepokedex.model.GenerationJob;
+import com.celinepokedex.service.CatalogVersions;
+import com.celinepokedex.service.CatalogVersions.Catalog;
+import com.celinepokedex.service.CharacterImageService;
 import com.celinepokedex.service.FantasyCharacterService;
+import com.celinepokedex.service.GenerationJobService;
 import com.celinepokedex.service.ImageGenerationService;
+import com.celinepokedex.util.CursorCodec;
+import com.celinepokedex.util.FieldSelection;
 import com.celinepokedex.util.PromptBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/characters")
 public class FantasyCharacterController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Für fields= auswählbare Spalten; "card" liefert die Felder der Galerie-Karten
+    private static final Set<String> SELECTABLE_FIELDS = Set.of(
+            "id", "name", "prompt", "imageUrl", "baseAnimal", "elementType", "description", "dominantColor",
+            "isPublic", "createdAt", "createdBy", "createdByRole");
+    private static final List<String> CARD_FIELDS = List.of("id", "name", "imageUrl", "elementType", "createdAt");
+
     private final FantasyCharacterService fantasyCharacterService;
     private final ImageGenerationService imageGenerationService;
+    private final GenerationJobService generationJobService;
+    private final CatalogVersions catalogVersions;
 
     @Autowired
     public FantasyCharacterController(FantasyCharacterService fantasyCharacterService, 
-                                      ImageGenerationService imageGenerationService) {
+                                      ImageGenerationService imageGenerationService,
+                                      GenerationJobService generationJobService,
+                                      CatalogVersions catalogVersions) {
         this.fantasyCharacterService = fantasyCharacterService;
         this.imageGenerationService = imageGenerationService;
+        this.generationJobService = generationJobService;
+        this.catalogVersions = catalogVersions;
     }
 
     /**
      * Get all fantasy characters
      * GET /api/characters
+     * 
+     * Without paging parameters all characters are returned; fields=name,imageUrl,... or fields=card
+     * selects only those columns. With cursor/size the gallery is delivered as keyset pages, newest
+     * first: cards (id, name, imageUrl, elementType, createdAt) by default, or the fields= columns
+     * plus id and createdAt, which the cursor is built from.
+     * Responses carry an ETag; a matching If-None-Match is answered with 304 without a query.
      */
     @GetMapping
-    public ResponseEntity<List<FantasyCharacter>> getAllCharacters(
-            @RequestParam(required = false) List<String> elementTypes) {
-        List<FantasyCharacter> characters = fantasyCharacterService.getAllFantasyCharacters();
-        
-        // Filter by element types if specified
-        if (elementTypes != null && !elementTypes.isEmpty()) {
-            characters = characters.stream()
-                    .filter(character -> character.getElementType() != null && 
-                                        elementTypes.contains(character.getElementType()))
-                    .collect(Collectors.toList());
+    public ResponseEntity<?> getAllCharacters(
+            @RequestParam(required = false) List<String> elementTypes,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        boolean filterByElement = elementTypes != null && !elementTypes.isEmpty();
+        List<String> selectedFields;
+        try {
+            selectedFields = FieldSelection.parse(fields, SELECTABLE_FIELDS, CARD_FIELDS, "id");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        
+        // Ohne Paging-Parameter: komplette Liste, den Filter erledigt die Datenbank
+        if (cursor == null && size == null) {
+            if (selectedFields != null) {
+                return ResponseEntity.ok(fantasyCharacterService.getFantasyCharacterFields(selectedFields, elementTypes));
+            }
+            return ResponseEntity.ok(filterByElement
+                    ? fantasyCharacterService.getFantasyCharactersByElementTypes(elementTypes)
+                    : fantasyCharacterService.getAllFantasyCharacters());
+        }
+        
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        
+        // Cursor-Format: createdAt|id des letzten Elements der vorherigen Seite
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        try {
+            String position = CursorCodec.decode(cursor);
+            if (position != null) {
+                String[] parts = position.split("\\|", 2);
+                afterCreatedAt = LocalDateTime.parse(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            }
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor"));
         }
         
-        return ResponseEntity.ok(characters);
+        // Ein Element mehr laden, um zu wissen, ob es eine nächste Seite gibt
+        if (selectedFields != null && !CARD_FIELDS.equals(selectedFields)) {
+            // Der Cursor wird aus createdAt und id gebildet
+            if (!selectedFields.contains("createdAt")) {
+                selectedFields = new ArrayList<>(selectedFields);
+                selectedFields.add("createdAt");
+            }
+            List<Map<String, Object>> rows = fantasyCharacterService.getFantasyCharacterFieldsAfter(
+                    selectedFields, elementTypes, afterCreatedAt, afterId, pageSize + 1);
+            String nextCursor = null;
+            if (rows.size() > pageSize) {
+                rows = rows.subList(0, pageSize);
+                Map<String, Object> last = rows.get(pageSize - 1);
+                nextCursor = CursorCodec.encode(last.get("createdAt") + "|" + last.get("id"));
+            }
+            return ResponseEntity.ok(new PageResponse<>(rows, pageSize, nextCursor));
+        }
+        
+        List<FantasyCharacterCard> cards = fantasyCharacterService.getFantasyCharacterCards(
+                elementTypes, afterCreatedAt, afterId, pageSize + 1);
+        
+        String nextCursor = null;
+        if (cards.size() > pageSize) {
+            cards = cards.subList(0, pageSize);
+            FantasyCharacterCard last = cards.get(pageSize - 1);
+            nextCursor = CursorCodec.encode(last.createdAt() + "|" + last.id());
+        }
+        return ResponseEntity.ok(new PageResponse<>(cards, pageSize, nextCursor));
     }
 
     /**
@@ -54,12 +151,21 @@ public class FantasyCharacterController {
      * GET /api/characters/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<FantasyCharacter> getCharacterById(@PathVariable Long id) {
-        Optional<FantasyCharacter> character = fantasyCharacterService.getFantasyCharacterById(id);
+    public ResponseEntity<FantasyCharacter> getCharacterById(@PathVariable Long id, WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        Optional<FantasyCharacter> character = fantasyCharacterService.getFantasyCharacterView(id);
         return character.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // Setzt ETag/Last-Modified; true, wenn der Client die aktuelle Version schon hat (304)
+    private boolean notModified(WebRequest request) {
+        return request.checkNotModified(catalogVersions.etag(Catalog.CHARACTERS),
+                catalogVersions.lastModified(Catalog.CHARACTERS));
+    }
+
     /**
      * Save a fantasy character
      * POST /api/characters/save
@@ -92,6 +198,7 @@ public ResponseEntity<FantasyCharacter> saveCharacter(@RequestBody Map<String, O
 
     try {
         FantasyCharacter savedCharacter = fantasyCharacterService.saveFantasyCharacter(character);
+        catalogVersions.bump(Catalog.CHARACTERS);
         return ResponseEntity.status(HttpStatus.CREATED).body(savedCharacter);
     } catch (Exception e) {
         e.printStackTrace();
@@ -100,13 +207,36 @@ public ResponseEntity<FantasyCharacter> saveCharacter(@RequestBody Map<String, O
 }
 
     /**
-     * Search fantasy characters by prompt
+     * Search fantasy characters by name, description and prompt, ranked by relevance
      * GET /api/characters/search?query=...
+     * With page/size the result is paged (PageResponse), otherwise all matches are returned.
+     * fields=name,imageUrl,... or fields=card selects only those columns.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<FantasyCharacter>> searchCharacters(@RequestParam String query) {
-        List<FantasyCharacter> characters = fantasyCharacterService.searchFantasyCharacters(query);
-        return ResponseEntity.ok(characters);
+    public ResponseEntity<?> searchCharacters(
+            @RequestParam String query,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields) {
+        List<String> selectedFields;
+        try {
+            selectedFields = FieldSelection.parse(fields, SELECTABLE_FIELDS, CARD_FIELDS, "id");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        
+        boolean paged = page != null || size != null;
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Pageable pageable = paged ? PageRequest.of(page == null ? 0 : Math.max(page, 0), pageSize) : Pageable.unpaged();
+        
+        Page<?> result = selectedFields != null
+                ? fantasyCharacterService.searchFantasyCharacterFields(query, selectedFields, pageable)
+                : fantasyCharacterService.searchFantasyCharacters(query, pageable);
+        if (!paged) {
+            return ResponseEntity.ok(result.getContent());
+        }
+        return ResponseEntity.ok(new PageResponse<>(result.getContent(), pageSize, null,
+                result.getNumber(), result.getTotalElements()));
     }
 
     /**
@@ -152,6 +282,68 @@ public ResponseEntity<FantasyCharacter> saveCharacter(@RequestBody Map<String, O
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Start generating a fantasy character image in the background
+     * POST /api/characters/generate/jobs
+     * 
+     * Returns 202 with the job ID right away. Poll GET /api/characters/generate/jobs/{jobId}
+     * or subscribe to GET /api/characters/generate/jobs/{jobId}/events for the imageUrl.
+     */
+    @PostMapping("/generate/jobs")
+    public ResponseEntity<Map<String, Object>> startCharacterGeneration(
+            @RequestBody FantasyCharacterGenerationRequest request) {
+        
+        // Validate request
+        if (request.getBaseAnimal() == null || 
+            request.getElementType() == null || 
+            request.getDominantColor() == null ||
+            request.getStyleType() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        String prompt = PromptBuilder.buildPrompt(
+            request.getBaseAnimal(),
+            request.getElementType(),
+            request.getDominantColor(),
+            request.getStyleType(),
+            request.getTraits()
+        );
+        
+        try {
+            GenerationJob job = generationJobService.submit(prompt);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                "jobId", job.getId(),
+                "status", job.getStatus(),
+                "prompt", prompt
+            ));
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Too many image generations in progress, please try again later"));
+        }
+    }
+    
+    /**
+     * Get the status of an image generation job
+     * GET /api/characters/generate/jobs/{jobId}
+     */
+    @GetMapping("/generate/jobs/{jobId}")
+    public ResponseEntity<GenerationJob> getGenerationJob(@PathVariable String jobId) {
+        return generationJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Subscribe to status events of an image generation job (Server-Sent Events)
+     * GET /api/characters/generate/jobs/{jobId}/events
+     */
+    @GetMapping(value = "/generate/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamGenerationJob(@PathVariable String jobId) {
+        return generationJobService.subscribe(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
     /**
      * Save a fantasy character that was generated using enum options
      * POST /api/characters/save-generated
@@ -188,6 +380,7 @@ public ResponseEntity<FantasyCharacter> saveCharacter(@RequestBody Map<String, O
         // Create and save character
         FantasyCharacter character = new FantasyCharacter(prompt, imageData);
         FantasyCharacter savedCharacter = fantasyCharacterService.saveFantasyCharacter(character);
+        catalogVersions.bump(Catalog.CHARACTERS);
         
         return ResponseEntity.status(HttpStatus.CREATED).body(savedCharacter);
     }
@@ -204,6 +397,7 @@ public ResponseEntity<FantasyCharacter> saveCharacter(@RequestBody Map<String, O
         }
         
         fantasyCharacterService.deleteFantasyCharacter(id);
+        catalogVersions.bump(Catalog.CHARACTERS);
         return ResponseEntity.noContent().build();
     }
 
@@ -235,7 +429,10 @@ public ResponseEntity<FantasyCharacter> saveCharacter(@RequestBody Map<String, O
         
         FantasyCharacter updatedCharacter = existingCharacter.get();
         updatedCharacter.setPrompt(prompt);
-        updatedCharacter.setImageUrl(imageUrl);
+        // Die Listen liefern /api/images/{id} statt Inline-Daten - dann bleibt das gespeicherte Bild erhalten
+        if (!imageUrl.equals(CharacterImageService.urlFor(id))) {
+            updatedCharacter.setImageUrl(imageUrl);
+        }
         updatedCharacter.setDescription(description);
         updatedCharacter.setIsPublic(isPublic);
         
@@ -254,6 +451,7 @@ public ResponseEntity<FantasyCharacter> saveCharacter(@RequestBody Map<String, O
         }
         
         FantasyCharacter savedCharacter = fantasyCharacterService.saveFantasyCharacter(updatedCharacter);
+        catalogVersions.bump(Catalog.CHARACTERS);
         return ResponseEntity.ok(savedCharacter);
     }
 
@@ -1,14 +1,27 @@
 package com.celinepokedex.controller;
 
+import com.celinepokedex.model.CharacterImage;
+import com.celinepokedex.service.CharacterImageService;
 import com.celinepokedex.service.CloudinaryService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.Optional;
 import java.util.logging.Logger;
 
 @RestController
@@ -17,9 +30,11 @@ public class ImageController {
 
     private static final Logger logger = Logger.getLogger(ImageController.class.getName());
     private final CloudinaryService cloudinaryService;
+    private final CharacterImageService characterImageService;
 
-    public ImageController(CloudinaryService cloudinaryService) {
+    public ImageController(CloudinaryService cloudinaryService, CharacterImageService characterImageService) {
         this.cloudinaryService = cloudinaryService;
+        this.characterImageService = characterImageService;
         logger.info("ImageController initialized with CloudinaryService");
     }
 
@@ -38,12 +53,19 @@ public class ImageController {
             return ResponseEntity.badRequest().body(response);
         }
 
+        Path tempFile = null;
         try {
-            // Read the image data
-            byte[] imageData = image.getBytes();
+            // Stream in eine temporäre Datei kopieren und dabei den Hash berechnen,
+            // statt die ganze Datei mit getBytes() in den Heap zu laden
+            tempFile = Files.createTempFile("image-upload-", ".tmp");
+            MessageDigest digest = CloudinaryService.newSha256Digest();
+            try (InputStream in = new DigestInputStream(image.getInputStream(), digest)) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String contentHash = HexFormat.of().formatHex(digest.digest());
             
             // Upload to Cloudinary
-            String imageUrl = cloudinaryService.uploadImage(imageData);
+            String imageUrl = cloudinaryService.uploadImage(tempFile.toFile(), contentHash);
             
             // Return the Cloudinary image URL
             Map<String, String> response = new HashMap<>();
@@ -59,11 +81,47 @@ public class ImageController {
             Map<String, String> response = new HashMap<>();
             response.put("error", "Failed to upload image: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        } finally {
+            deleteQuietly(tempFile);
         }
     }
 
     /**
-     * Delete an image from Cloudinary
+     * Serve a character image that is stored in the database rather than on Cloudinary
+     * GET /api/images/{characterId}
+     *
+     * The URL stays the same when the image is replaced, so clients must revalidate:
+     * the ETag is the content hash and a matching If-None-Match is answered with 304.
+     */
+    @GetMapping("/{characterId:\\d+}")
+    public ResponseEntity<byte[]> getCharacterImage(@PathVariable Long characterId, WebRequest request) {
+        Optional<String> contentHash = characterImageService.findContentHash(characterId);
+        Optional<CharacterImage> image = Optional.empty();
+        if (contentHash.isEmpty()) {
+            // Noch kein Hash gespeichert (ältere Zeile oder data: URI im Charakter) - load() ergänzt ihn,
+            // das geladene Bild wird unten direkt ausgeliefert
+            image = characterImageService.load(characterId);
+            contentHash = image.map(CharacterImage::getContentHash);
+            if (contentHash.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+        }
+        if (request.checkNotModified("\"" + contentHash.get() + "\"")) {
+            return null;
+        }
+        if (image.isEmpty()) {
+            image = characterImageService.load(characterId);
+        }
+        return image
+                .map(loaded -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType(loaded.getContentType()))
+                        .cacheControl(CacheControl.noCache())
+                        .body(loaded.getData()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Delete an image from Cloudinary (admin only)
      * DELETE /api/images
      * 
      * @param imageUrl The URL of the image to delete
@@ -78,14 +136,27 @@ public class ImageController {
             return ResponseEntity.badRequest().body(response);
         }
         
-        boolean deleted = cloudinaryService.deleteImage(imageUrl);
-        
-        if (deleted) {
-            response.put("message", "Image successfully deleted");
-            return ResponseEntity.ok(response);
-        } else {
-            response.put("error", "Failed to delete image");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        switch (cloudinaryService.deleteImage(imageUrl)) {
+            case DELETED:
+                response.put("message", "Image successfully deleted");
+                return ResponseEntity.ok(response);
+            case STILL_REFERENCED:
+                response.put("message", "Image is still used by other characters and was kept");
+                return ResponseEntity.ok(response);
+            default:
+                response.put("error", "Failed to delete image");
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warning("Could not delete temporary upload file " + file + ": " + e.getMessage());
         }
     }
 }
\ No newline at end of file
@@ -1,19 +1,36 @@
 package com.celinepokedex.controller;
 
 import com.celinepokedex.exception.PokemonNotFoundException;
+import com.celinepokedex.controller.response.PageResponse;
 import com.celinepokedex.model.EvolutionChain;
 import com.celinepokedex.model.Pokemon;
 import com.celinepokedex.model.Type;
+import com.celinepokedex.repository.FieldProjection;
 import com.celinepokedex.repository.PokemonRepository;
+import com.celinepokedex.repository.PokemonSpecifications;
+import com.celinepokedex.service.CatalogVersions;
+import com.celinepokedex.service.CatalogVersions.Catalog;
+import com.celinepokedex.service.PokedexIndex;
+import com.celinepokedex.service.PokemonCatalogChangedEvent;
 import com.celinepokedex.service.PokemonEvolutionService;
+import com.celinepokedex.util.CursorCodec;
+import com.celinepokedex.util.FieldSelection;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.http.ResponseEntity;
 
 import jakarta.validation.Valid;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/pokemons")
@@ -24,96 +41,223 @@ public class PokemonController {
     
     @Autowired
     private PokemonEvolutionService evolutionService;
+    
+    @Autowired
+    private FieldProjection fieldProjection;
+    
+    @Autowired
+    private PokedexIndex pokedexIndex;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private CatalogVersions catalogVersions;
+    
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    
+    // Für fields= auswählbare Spalten; "card" liefert die Felder für die Kartenansicht
+    private static final Set<String> SELECTABLE_FIELDS = Set.of(
+            "pokedexNumber", "name", "description", "imageUrl", "height", "weight", "type1", "type2",
+            "category", "ability", "evolutionChainId", "evolvesFromId", "evolutionTrigger", "evolutionCondition",
+            "createdAt");
+    private static final List<String> CARD_FIELDS = List.of("pokedexNumber", "name", "imageUrl", "type1", "type2");
+    
+    // Die Typen ändern sich nur mit einem neuen Build
+    private static final String TYPES_ETAG = "\"types-" + Integer.toHexString(Arrays.toString(Type.values()).hashCode()) + "\"";
 
-    // GET: Alle Pokémon abrufen, mit optionaler Typ-Filterung oder Evolution-Chain-Filterung
+    // GET: Alle Pokémon abrufen, mit optionaler Typ-Filterung oder Evolution-Chain-Filterung.
+    // Mit page/size (Offset) oder cursor/size (Keyset) wird seitenweise geliefert.
+    // Mit fields=name,imageUrl,... oder fields=card werden nur diese Spalten gelesen und geliefert.
+    // Bei passendem If-None-Match antworten wir mit 304, ohne den Katalog zu lesen.
     @GetMapping
-    public List<Pokemon> getAllPokemons(
+    public ResponseEntity<?> getAllPokemons(
             @RequestParam(required = false) List<Type> types,
-            @RequestParam(required = false) Integer evolutionChainId) {
+            @RequestParam(required = false) Integer evolutionChainId,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
         
-        List<Pokemon> pokemons;
+        if (request.checkNotModified(catalogVersions.etag(Catalog.POKEMONS), catalogVersions.lastModified(Catalog.POKEMONS))) {
+            return null;
+        }
+        
+        List<String> selectedFields;
+        try {
+            selectedFields = FieldSelection.parse(fields, SELECTABLE_FIELDS, CARD_FIELDS, "pokedexNumber");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
         
         // Wenn eine evolutionChainId angegeben wurde, filtere nach Evolution-Chain-ID
         if (evolutionChainId != null) {
-            return pokemonRepository.findByEvolutionChainId(evolutionChainId);
+            return ResponseEntity.ok(selectedFields != null
+                    ? project(selectedFields, PokemonSpecifications.evolutionChainIdEquals(evolutionChainId), 0, -1)
+                    : pokemonRepository.findByEvolutionChainId(evolutionChainId));
         }
         
-        // Sonst hole alle Pokémon
-        pokemons = pokemonRepository.findAll();
+        boolean filterByType = types != null && !types.isEmpty();
+        Specification<Pokemon> typeFilter = filterByType ? PokemonSpecifications.anyTypeIn(types) : null;
         
-        // Wenn Typen angegeben wurden, filtere die Liste nach diesen Typen
-        if (types != null && !types.isEmpty()) {
-            pokemons = pokemons.stream()
-                    .filter(pokemon -> 
-                        // Ein Pokémon wird angezeigt, wenn es mindestens einen der gesuchten Typen hat
-                        types.stream().anyMatch(type -> 
-                            type.equals(pokemon.getType1()) || type.equals(pokemon.getType2())
-                        )
-                    )
-                    .collect(Collectors.toList());
+        // Ohne Paging-Parameter: komplette Liste, Filter und Sortierung erledigt die Datenbank
+        if (page == null && size == null && cursor == null) {
+            if (selectedFields != null) {
+                return ResponseEntity.ok(project(selectedFields, typeFilter, 0, -1));
+            }
+            return ResponseEntity.ok(filterByType
+                    ? pokedexIndex.search(null, types)
+                    : pokedexIndex.findAll());
         }
         
-        // Sortiere nach Pokédex-Nummer
-        return pokemons.stream()
-                .sorted((p1, p2) -> p1.getPokedexNumber().compareTo(p2.getPokedexNumber()))
-                .toList();
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        
+        // Offset-Paging: page und totalElements, aber kein Cursor - die nächste Seite ist page + 1
+        if (page != null) {
+            PageRequest pageRequest = PageRequest.of(Math.max(page, 0), pageSize, Sort.by("pokedexNumber"));
+            if (selectedFields != null) {
+                List<Map<String, Object>> rows = project(selectedFields, typeFilter, pageRequest.getOffset(), pageSize);
+                long total = fieldProjection.count(Pokemon.class, typeFilter);
+                return ResponseEntity.ok(new PageResponse<>(rows, pageSize, null, pageRequest.getPageNumber(), total));
+            }
+            Page<Pokemon> result = filterByType
+                    ? pokemonRepository.findByAnyTypeIn(types, pageRequest)
+                    : pokemonRepository.findAll(pageRequest);
+            return ResponseEntity.ok(new PageResponse<>(result.getContent(), pageSize, null,
+                    result.getNumber(), result.getTotalElements()));
+        }
+        
+        // Keyset-Paging: ein Element mehr laden, um zu wissen, ob es eine nächste Seite gibt
+        String after;
+        try {
+            after = CursorCodec.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor"));
+        }
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        if (after == null) {
+            after = "";
+        }
+        
+        if (selectedFields != null) {
+            Specification<Pokemon> afterFilter = PokemonSpecifications.pokedexNumberGreaterThan(after);
+            List<Map<String, Object>> rows = project(selectedFields,
+                    typeFilter != null ? typeFilter.and(afterFilter) : afterFilter, 0, pageSize + 1);
+            String nextCursor = null;
+            if (rows.size() > pageSize) {
+                rows = rows.subList(0, pageSize);
+                nextCursor = CursorCodec.encode((String) rows.get(pageSize - 1).get("pokedexNumber"));
+            }
+            return ResponseEntity.ok(new PageResponse<>(rows, pageSize, nextCursor));
+        }
+        
+        List<Pokemon> pokemons = filterByType
+                ? pokemonRepository.findByAnyTypeInAfter(types, after, limit)
+                : pokemonRepository.findByPokedexNumberGreaterThanOrderByPokedexNumberAsc(after, limit);
+        
+        String nextCursor = null;
+        if (pokemons.size() > pageSize) {
+            pokemons = pokemons.subList(0, pageSize);
+            nextCursor = CursorCodec.encode(pokemons.get(pageSize - 1).getPokedexNumber());
+        }
+        return ResponseEntity.ok(new PageResponse<>(pokemons, pageSize, nextCursor));
     }
     
     // GET: Alle verfügbaren Pokémon-Typen abrufen
     @GetMapping("/types")
-    public Type[] getAllTypes() {
+    public Type[] getAllTypes(WebRequest request) {
+        if (request.checkNotModified(TYPES_ETAG)) {
+            return null;
+        }
         return Type.values();
     }
     
     // GET: Ein einzelnes Pokémon nach Pokédex-Nummer abrufen
     @GetMapping("/{pokedexNumber}")
-    public Pokemon getPokemonByPokedexNumber(@PathVariable String pokedexNumber) {
-        return pokemonRepository.findById(pokedexNumber)
+    public Pokemon getPokemonByPokedexNumber(@PathVariable String pokedexNumber, WebRequest request) {
+        if (request.checkNotModified(catalogVersions.etag(Catalog.POKEMONS), catalogVersions.lastModified(Catalog.POKEMONS))) {
+            return null;
+        }
+        return pokedexIndex.findByPokedexNumber(pokedexNumber)
                 .orElseThrow(() -> new PokemonNotFoundException(pokedexNumber));
     }
 
-    // GET: Pokémon nach Name, Pokédexnummer oder Typen suchen
+    // GET: Pokémon nach Name, Pokédexnummer oder Typen suchen (optional mit fields=)
+    // Mit fuzzy=true wird tippfehlertolerant gesucht und nach Relevanz sortiert.
     @GetMapping("/search")
-    public List<Pokemon> searchPokemons(
+    public ResponseEntity<?> searchPokemons(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String pokedexNumber,
-            @RequestParam(required = false) List<Type> types) {
-        
-        // Wenn Typen angegeben wurden, hat das Priorität
-        if (types != null && !types.isEmpty()) {
-            return pokemonRepository.findAll().stream()
-                    .filter(pokemon -> 
-                        types.stream().anyMatch(type -> 
-                            type.equals(pokemon.getType1()) || type.equals(pokemon.getType2())
-                        )
-                    )
-                    .collect(Collectors.toList());
-        }
-        // Sonst normale Suche nach Name oder Pokédexnummer
-        else if (name != null) {
-            return pokemonRepository.findByNameContainingIgnoreCase(name);
+            @RequestParam(required = false) List<Type> types,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean fuzzy) {
+        
+        if (fuzzy && name != null) {
+            return ResponseEntity.ok(pokedexIndex.fuzzySearch(name, types));
+        }
+        
+        List<String> selectedFields;
+        try {
+            selectedFields = FieldSelection.parse(fields, SELECTABLE_FIELDS, CARD_FIELDS, "pokedexNumber");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        
+        boolean filterByType = types != null && !types.isEmpty();
+        boolean filterByName = name != null && !name.isEmpty();
+        
+        if (selectedFields != null) {
+            Specification<Pokemon> filter;
+            if (filterByType && filterByName) {
+                filter = PokemonSpecifications.anyTypeIn(types).and(PokemonSpecifications.nameContainsIgnoreCase(name));
+            } else if (filterByType) {
+                filter = PokemonSpecifications.anyTypeIn(types);
+            } else if (name != null) {
+                filter = PokemonSpecifications.nameContainsIgnoreCase(name);
+            } else if (pokedexNumber != null) {
+                filter = PokemonSpecifications.pokedexNumberEquals(pokedexNumber);
+            } else {
+                return ResponseEntity.ok(List.of());
+            }
+            return ResponseEntity.ok(project(selectedFields, filter, 0, -1));
+        }
+        
+        // Suche ohne Datenbankzugriff über den In-Memory-Index
+        if (filterByType || name != null) {
+            return ResponseEntity.ok(pokedexIndex.search(name, types));
         } else if (pokedexNumber != null) {
-            return pokemonRepository.findById(pokedexNumber)
+            return ResponseEntity.ok(pokedexIndex.findByPokedexNumber(pokedexNumber)
                     .map(List::of)
-                    .orElse(List.of());
+                    .orElse(List.of()));
         } else {
-            return List.of(); // Falls keine Suchparameter angegeben wurden
+            return ResponseEntity.ok(List.of()); // Falls keine Suchparameter angegeben wurden
         }
     }
     
+    // Nur die gewählten Spalten lesen, sortiert nach Pokédex-Nummer
+    private List<Map<String, Object>> project(List<String> fields, Specification<Pokemon> filter, long offset, int limit) {
+        return fieldProjection.findAll(Pokemon.class, fields, Map.of(), filter, Sort.by("pokedexNumber"), offset, limit);
+    }
+    
     // POST: Neues Pokémon erstellen
     @PostMapping
     public ResponseEntity<Pokemon> createPokemon(@Valid @RequestBody Pokemon pokemon) {
         if (pokemon.getDescription() != null && pokemon.getDescription().length() > 150) {
             pokemon.setDescription(pokemon.getDescription().substring(0, 150));
         }
-        return ResponseEntity.ok(pokemonRepository.save(pokemon));
+        Pokemon saved = pokemonRepository.save(pokemon);
+        evolutionService.invalidateEvolutionChains(saved.getPokedexNumber(), saved.getEvolutionChainId());
+        eventPublisher.publishEvent(new PokemonCatalogChangedEvent(saved.getPokedexNumber()));
+        return ResponseEntity.ok(saved);
     }
 
     // PUT: Ein Pokémon aktualisieren
     @PutMapping("/{pokedexNumber}")
     public ResponseEntity<Pokemon> updatePokemon(@PathVariable String pokedexNumber, @Valid @RequestBody Pokemon updatedPokemon) {
         return pokemonRepository.findById(pokedexNumber).map(pokemon -> {
+            Integer previousEvolutionChainId = pokemon.getEvolutionChainId();
             pokemon.setName(updatedPokemon.getName());
             
             // Beschreibung auf 150 Zeichen begrenzen
@@ -138,17 +282,24 @@ public class PokemonController {
             pokemon.setEvolutionTrigger(updatedPokemon.getEvolutionTrigger());
             pokemon.setEvolutionCondition(updatedPokemon.getEvolutionCondition());
             
-            return ResponseEntity.ok(pokemonRepository.save(pokemon));
+            Pokemon saved = pokemonRepository.save(pokemon);
+            
+            // Materialisierte Evolutionsketten vor und nach der Änderung verwerfen
+            evolutionService.invalidateEvolutionChains(pokedexNumber, previousEvolutionChainId);
+            evolutionService.invalidateEvolutionChains(saved.getPokedexNumber(), saved.getEvolutionChainId());
+            eventPublisher.publishEvent(new PokemonCatalogChangedEvent(saved.getPokedexNumber()));
+            return ResponseEntity.ok(saved);
         }).orElseThrow(() -> new PokemonNotFoundException(pokedexNumber));
     }
 
     // DELETE: Ein Pokémon löschen
     @DeleteMapping("/{pokedexNumber}")
     public void deletePokemon(@PathVariable String pokedexNumber) {
-        if (!pokemonRepository.existsById(pokedexNumber)) {
-            throw new PokemonNotFoundException(pokedexNumber);
-        }
-        pokemonRepository.deleteById(pokedexNumber);
+        Pokemon pokemon = pokemonRepository.findById(pokedexNumber)
+                .orElseThrow(() -> new PokemonNotFoundException(pokedexNumber));
+        pokemonRepository.delete(pokemon);
+        evolutionService.invalidateEvolutionChains(pokedexNumber, pokemon.getEvolutionChainId());
+        eventPublisher.publishEvent(new PokemonCatalogChangedEvent(pokedexNumber));
     }
     
     // GET: Evolution chain for a Pokemon
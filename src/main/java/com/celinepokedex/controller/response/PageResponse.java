@@ -0,0 +1,73 @@
+package com.celinepokedex.controller.response;
+
+import java.util.List;
+
+/**
+ * Response body for paged list endpoints.
+ * Keyset pages carry a nextCursor token, offset pages carry page and totalElements.
+ */
+public class PageResponse<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private Integer page;
+    private Long totalElements;
+
+    public PageResponse() {
+    }
+
+    public PageResponse(List<T> content, int size, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public PageResponse(List<T> content, int size, String nextCursor, Integer page, Long totalElements) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.page = page;
+        this.totalElements = totalElements;
+    }
+
+    // Getters and setters
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(Integer page) {
+        this.page = page;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+}
@@ -0,0 +1,8 @@
+package com.celinepokedex.exception;
+
+public class IndexNotReadyException extends RuntimeException {
+
+    public IndexNotReadyException(String indexName) {
+        super(indexName + " is still being built, please retry shortly");
+    }
+}
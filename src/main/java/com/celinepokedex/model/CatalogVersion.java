@@ -0,0 +1,55 @@
+package com.celinepokedex.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Version counter of a catalogue collection, shared by all nodes (see CatalogVersions)
+ */
+@Entity
+@Table(name = "catalog_versions")
+public class CatalogVersion {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private Long version;
+
+    // Epoch-Millisekunden, unabhängig von der Zeitzone der einzelnen Knoten
+    @Column(name = "last_modified", nullable = false)
+    private Long lastModified;
+
+    public CatalogVersion() {
+    }
+
+    public CatalogVersion(String name, Long version, Long lastModified) {
+        this.name = name;
+        this.version = version;
+        this.lastModified = lastModified;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Long lastModified) {
+        this.lastModified = lastModified;
+    }
+}
@@ -0,0 +1,84 @@
+package com.celinepokedex.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Binary image content of a fantasy character that is not hosted on Cloudinary (yet).
+ * Kept out of fantasy_characters so that listings only read the short image URL;
+ * the image itself is served from /api/images/{characterId}.
+ */
+@Entity
+@Table(name = "character_images")
+public class CharacterImage {
+
+    @Id
+    @Column(name = "character_id")
+    private Long characterId;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(columnDefinition = "bytea", nullable = false)
+    private byte[] data;
+
+    // SHA-256 der Bilddaten, dient als ETag
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public CharacterImage() {
+    }
+
+    public CharacterImage(Long characterId, String contentType, byte[] data, String contentHash) {
+        this.characterId = characterId;
+        this.contentType = contentType;
+        this.data = data;
+        this.contentHash = contentHash;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getCharacterId() {
+        return characterId;
+    }
+
+    public void setCharacterId(Long characterId) {
+        this.characterId = characterId;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
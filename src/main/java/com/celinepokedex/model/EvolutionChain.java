@@ -86,6 +86,10 @@ public class EvolutionChain {
         private String trigger;
         private String condition;
         
+        // Für Jackson (materialisierte Ketten)
+        public EvolutionStage() {
+        }
+        
         public EvolutionStage(Pokemon pokemon, String trigger, String condition) {
             this.pokemon = pokemon;
             this.trigger = trigger;
@@ -0,0 +1,76 @@
+package com.celinepokedex.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Materialized evolution chain, stored as serialized JSON and keyed by the PokéAPI chain ID.
+ * The member Pokédex numbers are kept in a separate indexed table so that writes to a
+ * Pokémon can find and invalidate every chain it appears in.
+ */
+@Entity
+@Table(name = "evolution_chain_snapshots")
+public class EvolutionChainSnapshot {
+
+    @Id
+    private Integer evolutionChainId;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @ElementCollection
+    @CollectionTable(name = "evolution_chain_snapshot_members",
+            joinColumns = @JoinColumn(name = "evolution_chain_id"),
+            indexes = @Index(name = "idx_snapshot_members_pokedex_number", columnList = "pokedex_number"))
+    @Column(name = "pokedex_number")
+    private Set<String> memberPokedexNumbers = new HashSet<>();
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public EvolutionChainSnapshot() {
+    }
+
+    public EvolutionChainSnapshot(Integer evolutionChainId, String payload, Set<String> memberPokedexNumbers) {
+        this.evolutionChainId = evolutionChainId;
+        this.payload = payload;
+        this.memberPokedexNumbers = memberPokedexNumbers;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Integer getEvolutionChainId() {
+        return evolutionChainId;
+    }
+
+    public void setEvolutionChainId(Integer evolutionChainId) {
+        this.evolutionChainId = evolutionChainId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Set<String> getMemberPokedexNumbers() {
+        return memberPokedexNumbers;
+    }
+
+    public void setMemberPokedexNumbers(Set<String> memberPokedexNumbers) {
+        this.memberPokedexNumbers = memberPokedexNumbers;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "fantasy_characters")
+@Table(name = "fantasy_characters", indexes = {
+    @Index(name = "idx_fantasy_characters_created", columnList = "created_at, id"),
+    @Index(name = "idx_fantasy_characters_element_created", columnList = "element_type, created_at, id")
+})
 public class FantasyCharacter {
 
     @Id
@@ -72,6 +75,24 @@ public class FantasyCharacter {
         this.createdBy = createdBy;
     }
 
+    // Constructor for read-only listing queries (see FantasyCharacterRepository.LISTING_SELECT)
+    public FantasyCharacter(Long id, String name, String prompt, String imageUrl, String baseAnimal,
+                            String elementType, String description, String dominantColor, Boolean isPublic,
+                            LocalDateTime createdAt, String createdBy, String createdByRole) {
+        this.id = id;
+        this.name = name;
+        this.prompt = prompt;
+        this.imageUrl = imageUrl;
+        this.baseAnimal = baseAnimal;
+        this.elementType = elementType;
+        this.description = description;
+        this.dominantColor = dominantColor;
+        this.isPublic = isPublic;
+        this.createdAt = createdAt;
+        this.createdBy = createdBy;
+        this.createdByRole = createdByRole;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
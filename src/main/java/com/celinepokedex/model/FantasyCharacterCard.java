@@ -0,0 +1,9 @@
+package com.celinepokedex.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Card fields of a fantasy character for the gallery, without prompt and description
+ */
+public record FantasyCharacterCard(Long id, String name, String imageUrl, String elementType, LocalDateTime createdAt) {
+}
@@ -0,0 +1,67 @@
+package com.celinepokedex.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * An image generation job that runs in the background; clients poll it or subscribe to its events.
+ * Jobs are only kept in memory.
+ */
+public class GenerationJob {
+
+    private final String id;
+    private final String prompt;
+    private final LocalDateTime createdAt;
+    private volatile GenerationJobStatus status = GenerationJobStatus.PENDING;
+    private volatile String imageUrl;
+    private volatile String error;
+    private volatile LocalDateTime updatedAt;
+
+    public GenerationJob(String id, String prompt) {
+        this.id = id;
+        this.prompt = prompt;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public String getPrompt() {
+        return prompt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public GenerationJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(GenerationJobStatus status) {
+        this.status = status;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,15 @@
+package com.celinepokedex.model;
+
+/**
+ * Lifecycle of an asynchronous image generation job.
+ */
+public enum GenerationJobStatus {
+    PENDING,
+    RUNNING,
+    SUCCEEDED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
@@ -0,0 +1,131 @@
+package com.celinepokedex.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cached result of a deterministic image generation: the Cloudinary URL produced for a
+ * normalized prompt and the generation parameters, keyed by the SHA-256 hash of both.
+ * last_accessed_at drives the LRU eviction.
+ */
+@Entity
+@Table(name = "generation_results", indexes = @Index(name = "idx_generation_results_last_accessed", columnList = "last_accessed_at"))
+public class GenerationResult {
+
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String prompt;
+
+    @Column(name = "image_url", columnDefinition = "TEXT", nullable = false)
+    private String imageUrl;
+
+    @Column(name = "image_size")
+    private Integer imageSize;
+
+    @Column(name = "inference_steps")
+    private Integer inferenceSteps;
+
+    @Column(name = "guidance_scale")
+    private Double guidanceScale;
+
+    private Long seed;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_accessed_at")
+    private LocalDateTime lastAccessedAt;
+
+    public GenerationResult() {
+    }
+
+    public GenerationResult(String cacheKey, String prompt, String imageUrl, Integer imageSize,
+                            Integer inferenceSteps, Double guidanceScale, Long seed) {
+        this.cacheKey = cacheKey;
+        this.prompt = prompt;
+        this.imageUrl = imageUrl;
+        this.imageSize = imageSize;
+        this.inferenceSteps = inferenceSteps;
+        this.guidanceScale = guidanceScale;
+        this.seed = seed;
+        this.createdAt = LocalDateTime.now();
+        this.lastAccessedAt = this.createdAt;
+    }
+
+    // Getters and Setters
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public void setCacheKey(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
+    public String getPrompt() {
+        return prompt;
+    }
+
+    public void setPrompt(String prompt) {
+        this.prompt = prompt;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public Integer getImageSize() {
+        return imageSize;
+    }
+
+    public void setImageSize(Integer imageSize) {
+        this.imageSize = imageSize;
+    }
+
+    public Integer getInferenceSteps() {
+        return inferenceSteps;
+    }
+
+    public void setInferenceSteps(Integer inferenceSteps) {
+        this.inferenceSteps = inferenceSteps;
+    }
+
+    public Double getGuidanceScale() {
+        return guidanceScale;
+    }
+
+    public void setGuidanceScale(Double guidanceScale) {
+        this.guidanceScale = guidanceScale;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getLastAccessedAt() {
+        return lastAccessedAt;
+    }
+
+    public void setLastAccessedAt(LocalDateTime lastAccessedAt) {
+        this.lastAccessedAt = lastAccessedAt;
+    }
+}
@@ -0,0 +1,70 @@
+package com.celinepokedex.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Local index of images uploaded to Cloudinary, keyed by the SHA-256 hash of their bytes.
+ * Identical images are uploaded only once and resolve to the same URL.
+ */
+@Entity
+@Table(name = "image_assets", indexes = @Index(name = "idx_image_assets_url", columnList = "url"))
+public class ImageAsset {
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String url;
+
+    @Column(name = "size_bytes")
+    private Integer sizeBytes;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public ImageAsset() {
+    }
+
+    public ImageAsset(String contentHash, String url, Integer sizeBytes) {
+        this.contentHash = contentHash;
+        this.url = url;
+        this.sizeBytes = sizeBytes;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public Integer getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(Integer sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
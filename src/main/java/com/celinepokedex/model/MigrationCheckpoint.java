@@ -0,0 +1,88 @@
+package com.celinepokedex.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a background migration, so that a restart resumes after the last processed row
+ */
+@Entity
+@Table(name = "migration_checkpoints")
+public class MigrationCheckpoint {
+
+    @Id
+    private String name;
+
+    @Column(name = "last_processed_id")
+    private Long lastProcessedId = 0L;
+
+    @Column(name = "migrated_count")
+    private Long migratedCount = 0L;
+
+    @Column(name = "error_count")
+    private Long errorCount = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public MigrationCheckpoint() {
+    }
+
+    public MigrationCheckpoint(String name) {
+        this.name = name;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getLastProcessedId() {
+        return lastProcessedId;
+    }
+
+    public void setLastProcessedId(Long lastProcessedId) {
+        this.lastProcessedId = lastProcessedId;
+    }
+
+    public Long getMigratedCount() {
+        return migratedCount;
+    }
+
+    public void setMigratedCount(Long migratedCount) {
+        this.migratedCount = migratedCount;
+    }
+
+    public Long getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(Long errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
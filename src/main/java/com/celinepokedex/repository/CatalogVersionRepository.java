@@ -0,0 +1,33 @@
+package com.celinepokedex.repository;
+
+import com.celinepokedex.model.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, String> {
+    
+    /**
+     * Atomically increments the version of a catalogue. Runs in its own transaction, because
+     * it is called from after-commit listeners where the original transaction is already done.
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("UPDATE CatalogVersion v SET v.version = v.version + 1, v.lastModified = :now WHERE v.name = :name")
+    int increment(@Param("name") String name, @Param("now") long now);
+    
+    /**
+     * All versions, read in a new transaction so that a caller's persistence context cannot
+     * return rows cached before the last increment
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    @Query("SELECT v FROM CatalogVersion v")
+    List<CatalogVersion> findCurrent();
+}
@@ -0,0 +1,29 @@
+package com.celinepokedex.repository;
+
+import com.celinepokedex.model.CharacterImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface CharacterImageRepository extends JpaRepository<CharacterImage, Long> {
+    
+    /**
+     * Content hash of a stored image, for revalidation without loading the image data
+     */
+    @Query("SELECT i.contentHash FROM CharacterImage i WHERE i.characterId = :characterId")
+    Optional<String> findContentHashById(@Param("characterId") Long characterId);
+    
+    /**
+     * Delete the stored image of a character without loading it first
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CharacterImage i WHERE i.characterId = :characterId")
+    int deleteByCharacterId(@Param("characterId") Long characterId);
+}
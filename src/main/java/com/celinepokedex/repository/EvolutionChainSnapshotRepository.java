@@ -0,0 +1,16 @@
+package com.celinepokedex.repository;
+
+import com.celinepokedex.model.EvolutionChainSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EvolutionChainSnapshotRepository extends JpaRepository<EvolutionChainSnapshot, Integer> {
+    
+    /**
+     * Find all materialized chains that contain the given Pokémon
+     */
+    List<EvolutionChainSnapshot> findByMemberPokedexNumbersContaining(String pokedexNumber);
+}
@@ -1,33 +1,125 @@
 package com.celinepokedex.repository;
 
 import com.celinepokedex.model.FantasyCharacter;
+import com.celinepokedex.model.FantasyCharacterCard;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface FantasyCharacterRepository extends JpaRepository<FantasyCharacter, Long> {
     
     /**
-     * Find fantasy characters that contain the query string in their prompts
+     * Image URL for read-only listings: inline data: images are replaced by their /api/images/{id} URL,
+     * so the base64 content never leaves the database
      */
-    @Query("SELECT f FROM FantasyCharacter f WHERE LOWER(f.prompt) LIKE LOWER(CONCAT('%', :query, '%')) ORDER BY f.createdAt DESC")
-    List<FantasyCharacter> findByPromptContaining(@Param("query") String query);
+    String LISTING_IMAGE_URL = "CASE WHEN SUBSTRING(f.imageUrl, 1, 5) = 'data:' " +
+           "THEN CONCAT('/api/images/', CAST(f.id AS String)) ELSE f.imageUrl END";
+    
+    String LISTING_SELECT = "SELECT new com.celinepokedex.model.FantasyCharacter(" +
+           "f.id, f.name, f.prompt, " + LISTING_IMAGE_URL + ", " +
+           "f.baseAnimal, f.elementType, f.description, f.dominantColor, f.isPublic, " +
+           "f.createdAt, f.createdBy, f.createdByRole) FROM FantasyCharacter f ";
+    
+    String CARD_SELECT = "SELECT new com.celinepokedex.model.FantasyCharacterCard(" +
+           "f.id, f.name, " + LISTING_IMAGE_URL + ", f.elementType, f.createdAt) FROM FantasyCharacter f ";
+    
+    // Keyset-Bedingung für (createdAt DESC, id DESC)
+    String AFTER_CURSOR = "(f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id)) ";
+    
+    /**
+     * Weighted full-text vector over name (A), description (B) and prompt (C).
+     * Must match the expression of the GIN index idx_fantasy_characters_search exactly,
+     * see SearchIndexInitializer.
+     */
+    String SEARCH_VECTOR = "(setweight(to_tsvector('simple', coalesce(name, '')), 'A') || " +
+           "setweight(to_tsvector('simple', coalesce(description, '')), 'B') || " +
+           "setweight(to_tsvector('simple', coalesce(prompt, '')), 'C'))";
     
     /**
-     * Find fantasy characters that contain the query string in either their name or prompt
+     * Full-text search over name, description and prompt, ranked by relevance (newest first on ties).
+     * Returns only the IDs; load the rows with {@link #findListingByIdIn}.
+     *
+     * @param tsQuery A to_tsquery expression, e.g. "feuer:* & fuchs:*"
      */
-    @Query("SELECT f FROM FantasyCharacter f WHERE " +
-           "LOWER(f.prompt) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "(f.name IS NOT NULL AND LOWER(f.name) LIKE LOWER(CONCAT('%', :query, '%'))) " +
-           "ORDER BY f.createdAt DESC")
-    List<FantasyCharacter> findByNameOrPromptContaining(@Param("query") String query);
+    @Query(value = "SELECT f.id FROM fantasy_characters f, to_tsquery('simple', :tsQuery) q " +
+                   "WHERE " + SEARCH_VECTOR + " @@ q " +
+                   "ORDER BY ts_rank(" + SEARCH_VECTOR + ", q) DESC, f.created_at DESC, f.id DESC",
+           countQuery = "SELECT COUNT(*) FROM fantasy_characters f " +
+                   "WHERE " + SEARCH_VECTOR + " @@ to_tsquery('simple', :tsQuery)",
+           nativeQuery = true)
+    Page<Long> searchIds(@Param("tsQuery") String tsQuery, Pageable pageable);
+    
+    @Query(LISTING_SELECT + "WHERE f.id IN :ids")
+    List<FantasyCharacter> findListingByIdIn(@Param("ids") Collection<Long> ids);
     
     /**
      * Get all characters ordered by creation date (newest first)
      */
+    @Query(LISTING_SELECT + "ORDER BY f.createdAt DESC")
     List<FantasyCharacter> findAllByOrderByCreatedAtDesc();
+    
+    /**
+     * Get all characters with one of the element types, newest first
+     */
+    @Query(LISTING_SELECT + "WHERE f.elementType IN :elementTypes ORDER BY f.createdAt DESC")
+    List<FantasyCharacter> findByElementTypeInOrderByCreatedAtDesc(@Param("elementTypes") Collection<String> elementTypes);
+    
+    /**
+     * Keyset page of gallery cards: the next characters (newest first) after the given position
+     */
+    @Query(CARD_SELECT + "WHERE " + AFTER_CURSOR + "ORDER BY f.createdAt DESC, f.id DESC")
+    List<FantasyCharacterCard> findCardsAfter(@Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+    
+    /**
+     * Keyset page of gallery cards filtered by element type (uses idx_fantasy_characters_element_created)
+     */
+    @Query(CARD_SELECT + "WHERE f.elementType IN :elementTypes AND " + AFTER_CURSOR +
+           "ORDER BY f.createdAt DESC, f.id DESC")
+    List<FantasyCharacterCard> findCardsByElementTypeInAfter(@Param("elementTypes") Collection<String> elementTypes,
+                                                             @Param("createdAt") LocalDateTime createdAt,
+                                                             @Param("id") Long id,
+                                                             Pageable pageable);
+    
+    /**
+     * Get a single character for display, with the same image URL rewrite as the listings
+     */
+    @Query(LISTING_SELECT + "WHERE f.id = :id")
+    Optional<FantasyCharacter> findListingById(@Param("id") Long id);
+    
+    @Query("SELECT f.imageUrl FROM FantasyCharacter f WHERE f.id = :id")
+    Optional<String> findImageUrlById(@Param("id") Long id);
+    
+    /**
+     * Whether any character still uses this image (images are shared by content hash)
+     */
+    boolean existsByImageUrl(String imageUrl);
+    
+    /**
+     * Next batch of characters whose image is not hosted on Cloudinary yet, in ID order after the given ID
+     */
+    @Query("SELECT f FROM FantasyCharacter f WHERE f.id > :afterId AND (" +
+           "f.imageUrl IS NULL OR f.imageUrl = '' OR f.imageUrl LIKE 'data:%' OR " +
+           "f.imageUrl LIKE '/api/%' OR f.imageUrl LIKE 'http://localhost%') ORDER BY f.id")
+    List<FantasyCharacter> findNeedingImageMigrationAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Update only the image URL, without overwriting concurrent changes to other fields
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE FantasyCharacter f SET f.imageUrl = :imageUrl WHERE f.id = :id")
+    int updateImageUrl(@Param("id") Long id, @Param("imageUrl") String imageUrl);
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.celinepokedex.repository;
+
+import com.celinepokedex.model.FantasyCharacter;
+import jakarta.persistence.criteria.Expression;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Filters for fantasy character queries built with the Criteria API (see FieldProjection)
+ */
+public class FantasyCharacterSpecifications {
+
+    private FantasyCharacterSpecifications() {
+    }
+
+    public static Specification<FantasyCharacter> elementTypeIn(Collection<String> elementTypes) {
+        return (root, query, cb) -> root.get("elementType").in(elementTypes);
+    }
+
+    public static Specification<FantasyCharacter> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Rows after the given position in newest-first order (keyset paging, like FantasyCharacterRepository.AFTER_CURSOR)
+     */
+    public static Specification<FantasyCharacter> after(LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)));
+    }
+
+    /**
+     * Image URL with inline data: images rewritten to /api/images/{id},
+     * like FantasyCharacterRepository.LISTING_IMAGE_URL
+     */
+    public static FieldProjection.FieldExpression<FantasyCharacter> listingImageUrl() {
+        return (root, cb) -> {
+            Expression<String> imageUrl = root.get("imageUrl");
+            return cb.<String>selectCase()
+                    .when(cb.equal(cb.substring(imageUrl, 1, 5), "data:"),
+                            cb.concat("/api/images/", root.get("id").as(String.class)))
+                    .otherwise(imageUrl);
+        };
+    }
+}
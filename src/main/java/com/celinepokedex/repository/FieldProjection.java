@@ -0,0 +1,112 @@
+package com.celinepokedex.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dynamic column projections for list endpoints with a fields= selector.
+ *
+ * Builds a Criteria tuple query that selects only the requested attributes, so Hibernate
+ * neither reads nor hydrates the other columns. Field names must be validated against a
+ * whitelist by the caller, see {@link com.celinepokedex.util.FieldSelection}.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class FieldProjection {
+
+    /**
+     * Computed select expression for a field, e.g. a rewritten image URL
+     */
+    @FunctionalInterface
+    public interface FieldExpression<T> {
+        Expression<?> toExpression(Root<T> root, CriteriaBuilder cb);
+    }
+
+    private final EntityManager entityManager;
+
+    public FieldProjection(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Selects the given fields of all matching entities
+     *
+     * @param fields Attribute names to select, in response order
+     * @param computed Expressions for fields that are not plain attributes
+     * @param spec Filter, may be null
+     * @param sort Sort order
+     * @param offset First row
+     * @param limit Maximum number of rows, or a negative value for no limit
+     * @return One map per row with the field names as keys
+     */
+    public <T> List<Map<String, Object>> findAll(Class<T> entityClass, List<String> fields,
+                                                 Map<String, FieldExpression<T>> computed,
+                                                 Specification<T> spec, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entityClass);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            FieldExpression<T> expression = computed.get(field);
+            selections.add((expression != null ? expression.toExpression(root, cb) : root.get(field)).alias(field));
+        }
+        query.multiselect(selections);
+
+        if (spec != null) {
+            query.where(spec.toPredicate(root, query, cb));
+        }
+
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orders.add(order.isAscending() ? cb.asc(root.get(order.getProperty())) : cb.desc(root.get(order.getProperty())));
+        }
+        query.orderBy(orders);
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        typedQuery.setFirstResult((int) offset);
+        if (limit >= 0) {
+            typedQuery.setMaxResults(limit);
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Counts the matching entities, for offset pages
+     */
+    public <T> long count(Class<T> entityClass, Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entityClass);
+        query.select(cb.count(root));
+        if (spec != null) {
+            query.where(spec.toPredicate(root, query, cb));
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,39 @@
+package com.celinepokedex.repository;
+
+import com.celinepokedex.model.GenerationResult;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface GenerationResultRepository extends JpaRepository<GenerationResult, String> {
+    
+    /**
+     * Marks a cached result as used, without loading it into the persistence context
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE GenerationResult r SET r.lastAccessedAt = :accessedAt WHERE r.cacheKey = :cacheKey")
+    int touch(@Param("cacheKey") String cacheKey, @Param("accessedAt") LocalDateTime accessedAt);
+    
+    /**
+     * Drop cached results pointing to a deleted image
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GenerationResult r WHERE r.imageUrl = :imageUrl")
+    int deleteByImageUrl(@Param("imageUrl") String imageUrl);
+    
+    /**
+     * Keys of the least recently used results, oldest first (eviction candidates)
+     */
+    @Query("SELECT r.cacheKey FROM GenerationResult r ORDER BY r.lastAccessedAt ASC")
+    List<String> findLeastRecentlyUsedKeys(Pageable pageable);
+}
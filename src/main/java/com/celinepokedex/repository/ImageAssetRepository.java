@@ -0,0 +1,21 @@
+package com.celinepokedex.repository;
+
+import com.celinepokedex.model.ImageAsset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface ImageAssetRepository extends JpaRepository<ImageAsset, String> {
+    
+    /**
+     * Remove index entries of a deleted image, so the same bytes are uploaded again next time
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ImageAsset a WHERE a.url = :url")
+    int deleteByUrl(@Param("url") String url);
+}
@@ -0,0 +1,9 @@
+package com.celinepokedex.repository;
+
+import com.celinepokedex.model.MigrationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MigrationCheckpointRepository extends JpaRepository<MigrationCheckpoint, String> {
+}
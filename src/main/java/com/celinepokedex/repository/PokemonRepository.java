@@ -1,9 +1,15 @@
 package com.celinepokedex.repository;
 
 import com.celinepokedex.model.Pokemon;
+import com.celinepokedex.model.Type;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,4 +21,28 @@ public interface PokemonRepository extends JpaRepository<Pokemon, String> {
     List<Pokemon> findByEvolutionChainId(Integer evolutionChainId);
     
     List<Pokemon> findByEvolvesFromId(String evolvesFromId);
+    
+    // Listing queries, sortiert nach Pokédex-Nummer (Quelle für den PokedexIndex)
+    List<Pokemon> findAllByOrderByPokedexNumberAsc();
+    
+    /**
+     * Keyset page: the next Pokémon after the given Pokédex number
+     */
+    List<Pokemon> findByPokedexNumberGreaterThanOrderByPokedexNumberAsc(String after, Pageable pageable);
+    
+    /**
+     * Keyset page filtered by type: the next Pokémon with one of the types after the given Pokédex number
+     */
+    @Query("SELECT p FROM Pokemon p WHERE (p.type1 IN :types OR p.type2 IN :types) " +
+           "AND p.pokedexNumber > :after ORDER BY p.pokedexNumber")
+    List<Pokemon> findByAnyTypeInAfter(@Param("types") Collection<Type> types,
+                                       @Param("after") String after,
+                                       Pageable pageable);
+    
+    /**
+     * Offset page filtered by type
+     */
+    @Query(value = "SELECT p FROM Pokemon p WHERE p.type1 IN :types OR p.type2 IN :types",
+           countQuery = "SELECT COUNT(p) FROM Pokemon p WHERE p.type1 IN :types OR p.type2 IN :types")
+    Page<Pokemon> findByAnyTypeIn(@Param("types") Collection<Type> types, Pageable pageable);
 }
@@ -0,0 +1,45 @@
+package com.celinepokedex.repository;
+
+import com.celinepokedex.model.Pokemon;
+import com.celinepokedex.model.Type;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Filters for Pokémon queries built with the Criteria API (see FieldProjection)
+ */
+public class PokemonSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private PokemonSpecifications() {
+    }
+
+    public static Specification<Pokemon> anyTypeIn(Collection<Type> types) {
+        return (root, query, cb) -> cb.or(root.get("type1").in(types), root.get("type2").in(types));
+    }
+
+    public static Specification<Pokemon> nameContainsIgnoreCase(String name) {
+        String pattern = "%" + escapeLike(name.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern, LIKE_ESCAPE);
+    }
+
+    public static Specification<Pokemon> pokedexNumberEquals(String pokedexNumber) {
+        return (root, query, cb) -> cb.equal(root.get("pokedexNumber"), pokedexNumber);
+    }
+
+    public static Specification<Pokemon> pokedexNumberGreaterThan(String after) {
+        return (root, query, cb) -> cb.greaterThan(root.get("pokedexNumber"), after);
+    }
+
+    public static Specification<Pokemon> evolutionChainIdEquals(Integer evolutionChainId) {
+        return (root, query, cb) -> cb.equal(root.get("evolutionChainId"), evolutionChainId);
+    }
+
+    // Nutzereingaben wörtlich suchen: "%" und "_" sind sonst Platzhalter, das Escape-Zeichen zuerst verdoppeln
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,119 @@
+package com.celinepokedex.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * HMAC keys for signing and verifying JWTs, identified by their key ID ("kid" header).
+ *
+ * The keys are read from a PKCS12 keystore shared by all nodes; every secret key entry is a
+ * verification key and its alias is the kid. New tokens are signed with the active key. To
+ * rotate, add the new key to the keystore on all nodes first, then switch jwt.active-kid and
+ * remove the old key once its last tokens have expired.
+ *
+ * Without a keystore an ephemeral key is generated, so tokens are only valid on this node
+ * until it restarts.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger logger = Logger.getLogger(JwtKeyRing.class.getName());
+
+    private final Map<String, SecretKey> keys;
+    private final String activeKid;
+
+    public JwtKeyRing(@Value("${jwt.keystore.path:}") String keystorePath,
+                      @Value("${jwt.keystore.password:}") String keystorePassword,
+                      @Value("${jwt.keystore.type:PKCS12}") String keystoreType,
+                      @Value("${jwt.active-kid:}") String activeKid) {
+        if (keystorePath == null || keystorePath.isBlank()) {
+            String kid = "ephemeral-" + UUID.randomUUID();
+            this.keys = Map.of(kid, Keys.secretKeyFor(SignatureAlgorithm.HS256));
+            this.activeKid = kid;
+            logger.warning("No jwt.keystore.path configured, signing JWTs with an ephemeral key. "
+                    + "Tokens are only valid on this node until it restarts.");
+            return;
+        }
+
+        this.keys = loadKeys(Paths.get(keystorePath), keystorePassword.toCharArray(), keystoreType);
+        if (activeKid.isBlank() && keys.size() == 1) {
+            activeKid = keys.keySet().iterator().next();
+        }
+        if (!keys.containsKey(activeKid)) {
+            throw new IllegalStateException("jwt.active-kid '" + activeKid + "' not found in keystore " + keystorePath
+                    + " (available: " + keys.keySet() + ")");
+        }
+        this.activeKid = activeKid;
+        logger.info("Loaded " + keys.size() + " JWT keys from " + keystorePath + ", signing with kid " + activeKid);
+    }
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public SecretKey getActiveKey() {
+        return keys.get(activeKid);
+    }
+
+    /**
+     * Verification key for a kid, or null if the kid is unknown
+     */
+    public SecretKey getKey(String kid) {
+        return kid != null ? keys.get(kid) : null;
+    }
+
+    private static Map<String, SecretKey> loadKeys(Path path, char[] password, String type) {
+        try (InputStream in = Files.newInputStream(path)) {
+            KeyStore keyStore = KeyStore.getInstance(type);
+            keyStore.load(in, password);
+
+            Map<String, SecretKey> keys = new HashMap<>();
+            KeyStore.PasswordProtection protection = new KeyStore.PasswordProtection(password);
+            for (String alias : Collections.list(keyStore.aliases())) {
+                if (!keyStore.entryInstanceOf(alias, KeyStore.SecretKeyEntry.class)) {
+                    continue;
+                }
+                SecretKey key = ((KeyStore.SecretKeyEntry) keyStore.getEntry(alias, protection)).getSecretKey();
+                keys.put(alias, hmacKey(alias, key.getEncoded()));
+            }
+            if (keys.isEmpty()) {
+                throw new IllegalStateException("Keystore " + path + " contains no secret keys");
+            }
+            return Map.copyOf(keys);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Could not load JWT keystore " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Keystores melden den Algorithmus uneinheitlich; maßgeblich ist die Schlüssellänge
+    private static SecretKey hmacKey(String alias, byte[] bytes) {
+        String algorithm;
+        if (bytes.length >= 64) {
+            algorithm = SignatureAlgorithm.HS512.getJcaName();
+        } else if (bytes.length >= 48) {
+            algorithm = SignatureAlgorithm.HS384.getJcaName();
+        } else if (bytes.length >= 32) {
+            algorithm = SignatureAlgorithm.HS256.getJcaName();
+        } else {
+            throw new IllegalStateException("JWT key '" + alias + "' is shorter than 256 bits");
+        }
+        return new SecretKeySpec(bytes, algorithm);
+    }
+}
@@ -1,23 +1,85 @@
 package com.celinepokedex.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies the HMAC-signed JWTs of the admin login.
+ *
+ * Tokens are signed with the active key of the JwtKeyRing and carry its kid in the header;
+ * verification picks the key by that kid, so every node sharing the keystore accepts them.
+ * Verification uses one prebuilt, thread-safe JwtParser. Verified tokens are remembered in a
+ * bounded cache keyed by the SHA-256 digest of the token (the token itself is not kept), so
+ * repeated requests with the same token skip the signature check until the token expires.
+ */
 @Component
 public class JwtTokenProvider {
     
-    private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
     private final long jwtExpirationInMs = 86400000; // 24 hours
     
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
+    private final Cache<String, Claims> verifiedTokens;
+    
+    public JwtTokenProvider(JwtKeyRing keyRing,
+                            @Value("${jwt.verified-token-cache.max-size:10000}") long verifiedTokenCacheSize) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = keyRing.getKey(header.getKeyId());
+                        if (key == null) {
+                            throw new JwtException("Unknown JWT key id: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+        // Jeder Eintrag lebt höchstens bis zum Ablauf seines Tokens
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+                        return timeToExpiry(claims).toNanos();
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+    
     public String generateToken(String username, String role) {
     Map<String, Object> claims = new HashMap<>();
     // IMMER mit ROLE_ prefix – falls nicht schon vorhanden
@@ -27,22 +89,41 @@ public class JwtTokenProvider {
     claims.put("role", role);
 
     return Jwts.builder()
+            .setHeaderParam(JwsHeader.KEY_ID, keyRing.getActiveKid())
             .setClaims(claims)
             .setSubject(username)
             .setIssuedAt(new Date(System.currentTimeMillis()))
             .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationInMs))
-            .signWith(key)
+            .signWith(keyRing.getActiveKey())
             .compact();
 }
 
     
-    public boolean validateToken(String token) {
+    /**
+     * Verifies signature and expiry of a token, at most once per token while it is cached
+     *
+     * @return the claims, or empty if the token is invalid or expired
+     */
+    public Optional<Claims> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        String digest = digest(token);
+        Claims claims = verifiedTokens.getIfPresent(digest);
+        if (claims != null) {
+            return Optional.of(claims);
+        }
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
         }
+        verifiedTokens.put(digest, claims);
+        return Optional.of(claims);
+    }
+    
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
     }
     
     public String getUsernameFromToken(String token) {
@@ -60,10 +141,24 @@ public class JwtTokenProvider {
     }
     
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return verify(token).orElseThrow(() -> new JwtException("Invalid or expired JWT token"));
+    }
+    
+    private Duration timeToExpiry(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return Duration.ofMillis(jwtExpirationInMs);
+        }
+        Duration remaining = Duration.between(Instant.now(), expiration.toInstant());
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+    
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -0,0 +1,51 @@
+package com.celinepokedex.security;
+
+import com.celinepokedex.util.StripedTokenBuckets;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Brute-force protection for the login: every attempt takes a token from the bucket of its
+ * username and from the bucket of its client IP. Throttled attempts are rejected before the
+ * password is hashed, so they cost no BCrypt time.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final int STRIPES = 4096;
+
+    private final StripedTokenBuckets usernameBuckets;
+    private final StripedTokenBuckets ipBuckets;
+
+    public LoginThrottle(@Value("${auth.login-throttle.username.capacity:5}") int usernameCapacity,
+                         @Value("${auth.login-throttle.username.refill-period:12s}") Duration usernameRefillPeriod,
+                         @Value("${auth.login-throttle.ip.capacity:20}") int ipCapacity,
+                         @Value("${auth.login-throttle.ip.refill-period:3s}") Duration ipRefillPeriod) {
+        this.usernameBuckets = new StripedTokenBuckets(usernameCapacity, usernameRefillPeriod, STRIPES);
+        this.ipBuckets = new StripedTokenBuckets(ipCapacity, ipRefillPeriod, STRIPES);
+    }
+
+    /**
+     * Records a login attempt
+     *
+     * @return Duration.ZERO if the attempt may proceed, otherwise how long the client has to wait
+     */
+    public Duration tryAcquire(String username, String clientIp) {
+        Duration ipWait = ipBuckets.tryAcquire(clientIp != null ? clientIp : "");
+        if (!ipWait.isZero()) {
+            return ipWait;
+        }
+        String key = username != null ? username.trim().toLowerCase(Locale.ROOT) : "";
+        return usernameBuckets.tryAcquire(key);
+    }
+
+    /**
+     * Wait time as a Retry-After value in whole seconds (rounded up, at least 1)
+     */
+    public static long toRetryAfterSeconds(Duration wait) {
+        return Math.max(1, (wait.toMillis() + 999) / 1000);
+    }
+}
@@ -6,21 +6,30 @@ import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtTokenProvider jwtTokenProvider) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
+            // Jede Anfrage bringt ihr JWT mit - keine HTTP-Session
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .addFilterBefore(new JwtAuthenticationFilter(jwtTokenProvider), UsernamePasswordAuthenticationFilter.class)
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(HttpMethod.POST, "/api/auth/login").permitAll()
-                .requestMatchers(HttpMethod.POST, "/api/characters/save", "/api/characters/save-generated", "/api/characters/generate*", "/api/characters/generate-description", "/api/characters/generate-name", "/api/characters/generate-prompt").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/characters/save", "/api/characters/save-generated", "/api/characters/generate*", "/api/characters/generate/jobs", "/api/characters/generate-description", "/api/characters/generate-name", "/api/characters/generate-prompt").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/characters/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/characters/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/characters/**").permitAll()
+                .requestMatchers(HttpMethod.DELETE, "/api/images").hasRole("ADMIN")
+                // Metriken verraten URIs, Cache-Statistiken und JVM-Interna - nur health bleibt öffentlich
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().permitAll()
             )
             .httpBasic(httpBasic -> httpBasic.disable()); // <-- KEIN Basic Auth!
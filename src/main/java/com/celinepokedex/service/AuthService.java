@@ -4,6 +4,9 @@ import com.celinepokedex.model.User;
 import com.celinepokedex.repository.UserRepository;
 import com.celinepokedex.security.JwtTokenProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -12,17 +15,21 @@ import jakarta.annotation.PostConstruct;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AuthService {
     private final UserRepository userRepository;
     private final JwtTokenProvider jwtTokenProvider;
+    private final TaskExecutor passwordHashingExecutor;
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     @Autowired
-    public AuthService(UserRepository userRepository, JwtTokenProvider jwtTokenProvider) {
+    public AuthService(UserRepository userRepository, JwtTokenProvider jwtTokenProvider,
+                       @Qualifier("passwordHashingExecutor") TaskExecutor passwordHashingExecutor) {
         this.userRepository = userRepository;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.passwordHashingExecutor = passwordHashingExecutor;
     }
 
     @PostConstruct
@@ -37,15 +44,33 @@ public class AuthService {
         }
     }
 
-    public Map<String, String> login(String username, String password) {
+    /**
+     * Checks the credentials on the password hashing pool, off the request thread.
+     * The future fails if the credentials are invalid.
+     *
+     * @throws TaskRejectedException if the password hashing pool is saturated
+     */
+    public CompletableFuture<Map<String, String>> login(String username, String password) {
         // Only allow admin login
-        if ("admin".equals(username)) {
-            Optional<User> adminUser = userRepository.findByUsername("admin");
-            if (adminUser.isPresent() && passwordEncoder.matches(password, adminUser.get().getPassword())) {
-                return createTokenResponse(username, "admin");
-            }
+        Optional<User> adminUser = "admin".equals(username) ? userRepository.findByUsername("admin") : Optional.empty();
+        if (adminUser.isEmpty() || password == null) {
+            return CompletableFuture.failedFuture(new RuntimeException("Invalid username or password"));
         }
-        throw new RuntimeException("Invalid username or password");
+        String passwordHash = adminUser.get().getPassword();
+
+        CompletableFuture<Map<String, String>> result = new CompletableFuture<>();
+        passwordHashingExecutor.execute(() -> {
+            try {
+                if (passwordEncoder.matches(password, passwordHash)) {
+                    result.complete(createTokenResponse(username, "admin"));
+                } else {
+                    result.completeExceptionally(new RuntimeException("Invalid username or password"));
+                }
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
     }
 
     // Registrierung abschalten oder mit Exception blockieren
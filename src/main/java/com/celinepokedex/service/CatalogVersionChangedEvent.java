@@ -0,0 +1,12 @@
+package com.celinepokedex.service;
+
+import com.celinepokedex.service.CatalogVersions.Catalog;
+
+/**
+ * Published by CatalogVersions when it sees a new version of a collection, from this node
+ * or another one, before the new ETag becomes visible
+ *
+ * @param catalog The changed collection
+ */
+public record CatalogVersionChangedEvent(Catalog catalog) {
+}
@@ -0,0 +1,132 @@
+package com.celinepokedex.service;
+
+import com.celinepokedex.model.CatalogVersion;
+import com.celinepokedex.repository.CatalogVersionRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Version counters for the catalogue collections, used as HTTP cache validators.
+ *
+ * Every committed write bumps the version of its collection, so the strong ETag of all
+ * responses built from it changes. A GET with a matching If-None-Match can then be answered
+ * with 304 before the catalogue is read.
+ *
+ * The counters live in the catalog_versions table, so all nodes behind a load balancer hand
+ * out the same ETags. Each node keeps a local copy, which only the scheduled poll updates -
+ * on the writing node as on all others, within catalog-versions.poll-interval-ms of the bump.
+ * Before a new version becomes visible, a CatalogVersionChangedEvent lets derived state
+ * (PokedexIndex) catch up on the poller thread, so request threads never wait for it. If that
+ * fails, the old version stays visible and the next poll tries again. A new row starts at the
+ * current time, so ETags from before a database reset never match again.
+ */
+@Component
+public class CatalogVersions {
+
+    private static final Logger logger = Logger.getLogger(CatalogVersions.class.getName());
+
+    public enum Catalog {
+        POKEMONS("pokemons"),
+        CHARACTERS("characters");
+
+        private final String tag;
+
+        Catalog(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final CatalogVersionRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<Catalog, AtomicReference<Version>> versions = new EnumMap<>(Catalog.class);
+
+    public CatalogVersions(CatalogVersionRepository repository, ApplicationEventPublisher eventPublisher) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        for (Catalog catalog : Catalog.values()) {
+            CatalogVersion row = repository.findById(catalog.tag).orElseGet(() -> insert(catalog));
+            versions.put(catalog, new AtomicReference<>(new Version(row.getVersion(), row.getLastModified())));
+        }
+    }
+
+    /**
+     * Strong ETag for the current state of the collection, e.g. "pokemons-1718000000042".
+     * Read it before the data: a write in between then only costs one extra full response.
+     */
+    public String etag(Catalog catalog) {
+        return "\"" + catalog.tag + "-" + versions.get(catalog).get().version() + "\"";
+    }
+
+    /**
+     * Time of the last write to the collection, in epoch milliseconds
+     */
+    public long lastModified(Catalog catalog) {
+        return versions.get(catalog).get().lastModified();
+    }
+
+    /**
+     * Marks the collection as changed on all nodes. Call only after the write has committed.
+     * The new version becomes visible with the next poll.
+     */
+    public void bump(Catalog catalog) {
+        repository.increment(catalog.tag, System.currentTimeMillis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPokemonCatalogChanged(PokemonCatalogChangedEvent event) {
+        bump(Catalog.POKEMONS);
+    }
+
+    /**
+     * Picks up versions bumped by this or other nodes
+     */
+    @Scheduled(fixedDelayString = "${catalog-versions.poll-interval-ms:1000}")
+    public void refresh() {
+        for (CatalogVersion row : repository.findCurrent()) {
+            for (Catalog catalog : Catalog.values()) {
+                if (catalog.tag.equals(row.getName())) {
+                    update(catalog, new Version(row.getVersion(), row.getLastModified()));
+                }
+            }
+        }
+    }
+
+    private void update(Catalog catalog, Version read) {
+        AtomicReference<Version> version = versions.get(catalog);
+        if (read.version() <= version.get().version()) {
+            return;
+        }
+        // Erst abhängige Daten nachziehen, dann die neue Version (und damit das neue ETag) sichtbar machen
+        try {
+            eventPublisher.publishEvent(new CatalogVersionChangedEvent(catalog));
+        } catch (RuntimeException e) {
+            // Alte Version bleibt sichtbar, der nächste Poll versucht es erneut
+            logger.warning("Could not apply " + catalog.tag + " version " + read.version() + ", retrying with the next poll: " + e.getMessage());
+            return;
+        }
+        // Versionen steigen nur; ein älterer, parallel gelesener Stand darf keinen neueren überschreiben
+        version.accumulateAndGet(read, (current, next) -> next.version() > current.version() ? next : current);
+    }
+
+    private CatalogVersion insert(Catalog catalog) {
+        long now = System.currentTimeMillis();
+        try {
+            return repository.saveAndFlush(new CatalogVersion(catalog.tag, now, now));
+        } catch (DataIntegrityViolationException e) {
+            // Ein anderer Knoten hat die Zeile gleichzeitig angelegt
+            logger.info("Catalog version " + catalog.tag + " was created by another node");
+            return repository.findById(catalog.tag).orElseThrow(() -> e);
+        }
+    }
+
+    private record Version(long version, long lastModified) {
+    }
+}
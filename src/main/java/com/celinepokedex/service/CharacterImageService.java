@@ -0,0 +1,106 @@
+package com.celinepokedex.service;
+
+import com.celinepokedex.model.CharacterImage;
+import com.celinepokedex.repository.CharacterImageRepository;
+import com.celinepokedex.repository.FantasyCharacterRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Base64;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Stores image content that arrives as data: URI in the character_images table instead of
+ * the fantasy_characters row, and serves it under /api/images/{characterId}.
+ */
+@Service
+public class CharacterImageService {
+
+    private static final Logger logger = Logger.getLogger(CharacterImageService.class.getName());
+
+    public static final String URL_PREFIX = "/api/images/";
+
+    private static final String DEFAULT_CONTENT_TYPE = "image/png";
+
+    private final CharacterImageRepository characterImageRepository;
+    private final FantasyCharacterRepository fantasyCharacterRepository;
+
+    public CharacterImageService(CharacterImageRepository characterImageRepository,
+                                 FantasyCharacterRepository fantasyCharacterRepository) {
+        this.characterImageRepository = characterImageRepository;
+        this.fantasyCharacterRepository = fantasyCharacterRepository;
+    }
+
+    public static boolean isDataUri(String imageUrl) {
+        return imageUrl != null && imageUrl.startsWith("data:");
+    }
+
+    public static String urlFor(Long characterId) {
+        return URL_PREFIX + characterId;
+    }
+
+    /**
+     * Decodes a data: URI and stores the image for the character
+     *
+     * @return The URL under which the image is served
+     */
+    public String store(Long characterId, String dataUri) {
+        CharacterImage image = decode(characterId, dataUri);
+        characterImageRepository.save(image);
+        return urlFor(characterId);
+    }
+
+    /**
+     * Content hash of the stored image, empty if there is none or it was stored before hashes were kept
+     */
+    public Optional<String> findContentHash(Long characterId) {
+        return characterImageRepository.findContentHashById(characterId);
+    }
+
+    /**
+     * Loads the image of a character. Rows that still hold a data: URI are moved to
+     * character_images on first access; images stored without a content hash get one.
+     */
+    @Transactional
+    public Optional<CharacterImage> load(Long characterId) {
+        Optional<CharacterImage> image = characterImageRepository.findById(characterId);
+        if (image.isPresent()) {
+            if (image.get().getContentHash() == null) {
+                image.get().setContentHash(CloudinaryService.sha256(image.get().getData()));
+            }
+            return image;
+        }
+
+        Optional<String> legacyImageUrl = fantasyCharacterRepository.findImageUrlById(characterId)
+                .filter(CharacterImageService::isDataUri);
+        if (legacyImageUrl.isEmpty()) {
+            return Optional.empty();
+        }
+
+        CharacterImage migrated = characterImageRepository.save(decode(characterId, legacyImageUrl.get()));
+        fantasyCharacterRepository.updateImageUrl(characterId, urlFor(characterId));
+        logger.info("Moved inline image of character ID " + characterId + " to character_images");
+        return Optional.of(migrated);
+    }
+
+    public void delete(Long characterId) {
+        characterImageRepository.deleteByCharacterId(characterId);
+    }
+
+    private CharacterImage decode(Long characterId, String dataUri) {
+        // Format: data:image/png;base64,iVBORw0...
+        int comma = dataUri.indexOf(',');
+        if (comma < 0) {
+            throw new IllegalArgumentException("Invalid data URI");
+        }
+        String meta = dataUri.substring("data:".length(), comma);
+        int semicolon = meta.indexOf(';');
+        String contentType = semicolon >= 0 ? meta.substring(0, semicolon) : meta;
+        if (!contentType.startsWith("image/")) {
+            contentType = DEFAULT_CONTENT_TYPE;
+        }
+        byte[] data = Base64.getMimeDecoder().decode(dataUri.substring(comma + 1));
+        return new CharacterImage(characterId, contentType, data, CloudinaryService.sha256(data));
+    }
+}
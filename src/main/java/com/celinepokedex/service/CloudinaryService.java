@@ -1,13 +1,22 @@
 package com.celinepokedex.service;
 
+import com.celinepokedex.model.ImageAsset;
+import com.celinepokedex.repository.FantasyCharacterRepository;
+import com.celinepokedex.repository.GenerationResultRepository;
+import com.celinepokedex.repository.ImageAssetRepository;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 import io.github.cdimascio.dotenv.Dotenv;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.io.File;
 import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Optional;
 import java.util.logging.Logger;
 
 @Service
@@ -15,9 +24,20 @@ public class CloudinaryService {
 
     private static final Logger logger = Logger.getLogger(CloudinaryService.class.getName());
     
+    public enum DeleteResult { DELETED, STILL_REFERENCED, FAILED }
+
     private final Cloudinary cloudinary;
+    private final ImageAssetRepository imageAssetRepository;
+    private final FantasyCharacterRepository fantasyCharacterRepository;
+    private final GenerationResultRepository generationResultRepository;
+
+    public CloudinaryService(ImageAssetRepository imageAssetRepository,
+                             FantasyCharacterRepository fantasyCharacterRepository,
+                             GenerationResultRepository generationResultRepository) {
+        this.imageAssetRepository = imageAssetRepository;
+        this.fantasyCharacterRepository = fantasyCharacterRepository;
+        this.generationResultRepository = generationResultRepository;
 
-    public CloudinaryService() {
         // .env laden
         Dotenv dotenv = Dotenv.load();
 
@@ -40,24 +60,48 @@ public class CloudinaryService {
     }
     
     /**
-     * Uploads an image to Cloudinary and returns the public URL
+     * Uploads an image to Cloudinary and returns the public URL.
+     * Images are content-addressed: if the same bytes were uploaded before,
+     * the existing URL is returned without calling Cloudinary.
      *
      * @param imageData The image data as byte array
      * @return The public URL of the uploaded image
      * @throws RuntimeException if upload fails
      */
     public String uploadImage(byte[] imageData) {
+        return upload(imageData, sha256(imageData));
+    }
+    
+    /**
+     * Uploads an image file from disk; Cloudinary streams it from the file instead of the heap
+     *
+     * @param imageFile The image file
+     * @param contentHash Hex-encoded SHA-256 of the file content, see {@link #newSha256Digest()}
+     * @return The public URL of the uploaded image
+     * @throws RuntimeException if upload fails
+     */
+    public String uploadImage(File imageFile, String contentHash) {
+        return upload(imageFile, contentHash);
+    }
+    
+    private String upload(Object imageData, String contentHash) {
+        Optional<ImageAsset> existing = imageAssetRepository.findById(contentHash);
+        if (existing.isPresent()) {
+            logger.info("Image already uploaded, reusing " + existing.get().getUrl());
+            return existing.get().getUrl();
+        }
+        
         try {
             logger.info("Uploading image to Cloudinary");
             
-            // Generate a unique public ID for the image
-            String publicId = "fantasy_character_" + UUID.randomUUID().toString();
+            // Public ID aus dem Inhalt ableiten - gleiche Bytes, gleiches Asset
+            String publicId = "fantasy_character_" + contentHash;
             
-            // Upload parameters
+            // Upload parameters; overwrite=false liefert ein bereits vorhandenes Asset unverändert zurück
             Map<String, Object> params = ObjectUtils.asMap(
                 "public_id", publicId,
                 "folder", "fantasy_characters",
-                "overwrite", true,
+                "overwrite", false,
                 "resource_type", "image"
             );
             
@@ -66,6 +110,15 @@ public class CloudinaryService {
             
             // Get the secure URL from the response
             String imageUrl = (String) uploadResult.get("secure_url");
+            Number bytes = (Number) uploadResult.get("bytes");
+            try {
+                imageAssetRepository.save(new ImageAsset(contentHash, imageUrl, bytes != null ? bytes.intValue() : null));
+            } catch (DataIntegrityViolationException e) {
+                // Ein paralleler Upload derselben Bytes hat das Asset zuerst eingetragen - dessen URL gilt
+                ImageAsset asset = imageAssetRepository.findById(contentHash).orElseThrow(() -> e);
+                logger.info("Image was uploaded in parallel, reusing " + asset.getUrl());
+                return asset.getUrl();
+            }
             
             logger.info("Image successfully uploaded to Cloudinary: " + imageUrl);
             return imageUrl;
@@ -77,18 +130,32 @@ public class CloudinaryService {
     }
     
     /**
-     * Deletes an image from Cloudinary by URL
+     * Deletes an image from Cloudinary by URL.
+     * Images are content-addressed and shared: the asset is only destroyed once no
+     * character references it any more. Its image_assets and generation cache entries are
+     * removed first, so uploads and generations from then on no longer hand out the URL;
+     * only then are the references checked. Uploads of the same bytes that are already
+     * running can still pick up the asset, so the endpoint is admin-only and meant for
+     * rare clean-ups.
      *
      * @param imageUrl The URL of the image to delete
-     * @return true if successful, false otherwise
+     * @return DELETED, STILL_REFERENCED if other characters use the image, or FAILED
      */
-    public boolean deleteImage(String imageUrl) {
+    public DeleteResult deleteImage(String imageUrl) {
+        // Ein späterer Upload derselben Bytes geht wieder zu Cloudinary und trägt das Asset neu ein
+        imageAssetRepository.deleteByUrl(imageUrl);
+        generationResultRepository.deleteByImageUrl(imageUrl);
+        if (fantasyCharacterRepository.existsByImageUrl(imageUrl)) {
+            logger.info("Image is still used by other characters, keeping it: " + imageUrl);
+            return DeleteResult.STILL_REFERENCED;
+        }
+        
         try {
             // Extract public ID from URL
             String publicId = extractPublicIdFromUrl(imageUrl);
             if (publicId == null) {
                 logger.warning("Could not extract public ID from URL: " + imageUrl);
-                return false;
+                return DeleteResult.FAILED;
             }
             
             logger.info("Deleting image from Cloudinary with public ID: " + publicId);
@@ -101,11 +168,26 @@ public class CloudinaryService {
             boolean success = "ok".equals(status);
             
             logger.info("Image deletion " + (success ? "successful" : "failed") + ": " + status);
-            return success;
+            return success ? DeleteResult.DELETED : DeleteResult.FAILED;
             
         } catch (IOException e) {
             logger.severe("Error deleting image from Cloudinary: " + e.getMessage());
-            return false;
+            return DeleteResult.FAILED;
+        }
+    }
+    
+    /**
+     * Computes the hex-encoded SHA-256 hash used as content address
+     */
+    public static String sha256(byte[] data) {
+        return HexFormat.of().formatHex(newSha256Digest().digest(data));
+    }
+    
+    public static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
     
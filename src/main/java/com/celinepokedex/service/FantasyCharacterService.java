@@ -1,30 +1,118 @@
 package com.celinepokedex.service;
 
 import com.celinepokedex.model.FantasyCharacter;
+import com.celinepokedex.model.FantasyCharacterCard;
 import com.celinepokedex.repository.FantasyCharacterRepository;
+import com.celinepokedex.repository.FantasyCharacterSpecifications;
+import com.celinepokedex.repository.FieldProjection;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class FantasyCharacterService {
 
+    private static final LocalDateTime FIRST_PAGE_CREATED_AT = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    // Auch projizierte Listen liefern nie Inline-Bilddaten
+    private static final Map<String, FieldProjection.FieldExpression<FantasyCharacter>> COMPUTED_FIELDS =
+            Map.of("imageUrl", FantasyCharacterSpecifications.listingImageUrl());
+
     private final FantasyCharacterRepository fantasyCharacterRepository;
+    private final CharacterImageService characterImageService;
+    private final FieldProjection fieldProjection;
 
     @Autowired
-    public FantasyCharacterService(FantasyCharacterRepository fantasyCharacterRepository) {
+    public FantasyCharacterService(FantasyCharacterRepository fantasyCharacterRepository,
+                                   CharacterImageService characterImageService,
+                                   FieldProjection fieldProjection) {
         this.fantasyCharacterRepository = fantasyCharacterRepository;
+        this.characterImageService = characterImageService;
+        this.fieldProjection = fieldProjection;
     }
 
     /**
-     * Get all fantasy characters
+     * Get all fantasy characters (read-only, inline images rewritten to /api/images/{id})
      */
     public List<FantasyCharacter> getAllFantasyCharacters() {
         return fantasyCharacterRepository.findAllByOrderByCreatedAtDesc();
     }
 
+    /**
+     * Get all fantasy characters with one of the element types, newest first (read-only)
+     */
+    public List<FantasyCharacter> getFantasyCharactersByElementTypes(Collection<String> elementTypes) {
+        return fantasyCharacterRepository.findByElementTypeInOrderByCreatedAtDesc(elementTypes);
+    }
+
+    /**
+     * Get only the given fields of all fantasy characters (optionally filtered by element type), newest first
+     */
+    public List<Map<String, Object>> getFantasyCharacterFields(List<String> fields, Collection<String> elementTypes) {
+        Specification<FantasyCharacter> filter = elementTypes == null || elementTypes.isEmpty()
+                ? null
+                : FantasyCharacterSpecifications.elementTypeIn(elementTypes);
+        return fieldProjection.findAll(FantasyCharacter.class, fields, COMPUTED_FIELDS, filter, NEWEST_FIRST, 0, -1);
+    }
+
+    /**
+     * Get the selected columns of the next characters (newest first) after the given position
+     *
+     * @param afterCreatedAt createdAt of the last row of the previous page, null for the first page
+     * @param afterId ID of the last row of the previous page
+     */
+    public List<Map<String, Object>> getFantasyCharacterFieldsAfter(List<String> fields, Collection<String> elementTypes,
+                                                                    LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        Specification<FantasyCharacter> filter = afterCreatedAt == null
+                ? null
+                : FantasyCharacterSpecifications.after(afterCreatedAt, afterId);
+        if (elementTypes != null && !elementTypes.isEmpty()) {
+            filter = Specification.where(filter).and(FantasyCharacterSpecifications.elementTypeIn(elementTypes));
+        }
+        return fieldProjection.findAll(FantasyCharacter.class, fields, COMPUTED_FIELDS, filter, NEWEST_FIRST, 0, limit);
+    }
+
+    /**
+     * Get the next gallery cards (newest first) after the given position
+     *
+     * @param elementTypes Optional element type filter
+     * @param afterCreatedAt createdAt of the last card of the previous page, null for the first page
+     * @param afterId ID of the last card of the previous page
+     * @param limit Maximum number of cards
+     */
+    public List<FantasyCharacterCard> getFantasyCharacterCards(Collection<String> elementTypes,
+                                                               LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        if (afterCreatedAt == null) {
+            // Erste Seite: Position hinter dem neuesten möglichen Eintrag
+            afterCreatedAt = FIRST_PAGE_CREATED_AT;
+            afterId = Long.MAX_VALUE;
+        }
+        PageRequest pageRequest = PageRequest.of(0, limit);
+        return elementTypes == null || elementTypes.isEmpty()
+                ? fantasyCharacterRepository.findCardsAfter(afterCreatedAt, afterId, pageRequest)
+                : fantasyCharacterRepository.findCardsByElementTypeInAfter(elementTypes, afterCreatedAt, afterId, pageRequest);
+    }
+
     /**
      * Get a fantasy character by ID
      */
@@ -33,23 +121,105 @@ public class FantasyCharacterService {
     }
 
     /**
-     * Save a new fantasy character
+     * Get a fantasy character by ID for display (read-only, inline image rewritten to /api/images/{id})
+     */
+    public Optional<FantasyCharacter> getFantasyCharacterView(Long id) {
+        return fantasyCharacterRepository.findListingById(id);
+    }
+
+    /**
+     * Save a new fantasy character. Inline data: images are stored in character_images
+     * and the character only keeps the /api/images/{id} URL.
      */
+    @Transactional
     public FantasyCharacter saveFantasyCharacter(FantasyCharacter fantasyCharacter) {
-        return fantasyCharacterRepository.save(fantasyCharacter);
+        String imageUrl = fantasyCharacter.getImageUrl();
+        if (!CharacterImageService.isDataUri(imageUrl)) {
+            if (fantasyCharacter.getId() != null
+                    && !CharacterImageService.urlFor(fantasyCharacter.getId()).equals(imageUrl)) {
+                // Bild wurde ersetzt - gespeicherte Bilddaten werden nicht mehr gebraucht
+                characterImageService.delete(fantasyCharacter.getId());
+            }
+            return fantasyCharacterRepository.save(fantasyCharacter);
+        }
+
+        // Erst speichern, um die ID für die Bild-URL zu bekommen
+        fantasyCharacter.setImageUrl(null);
+        FantasyCharacter saved = fantasyCharacterRepository.save(fantasyCharacter);
+        saved.setImageUrl(characterImageService.store(saved.getId(), imageUrl));
+        return fantasyCharacterRepository.save(saved);
     }
 
     /**
-     * Search fantasy characters by prompt or name
+     * Search fantasy characters by name, description or prompt, ranked by relevance.
+     * Every word of the query must match the beginning of a word in the character.
+     */
+    public Page<FantasyCharacter> searchFantasyCharacters(String query, Pageable pageable) {
+        String tsQuery = toPrefixTsQuery(query);
+        if (tsQuery.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        
+        Page<Long> ids = fantasyCharacterRepository.searchIds(tsQuery, pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        
+        // Zeilen laden und in die Reihenfolge des Rankings bringen
+        Map<Long, FantasyCharacter> byId = fantasyCharacterRepository.findListingByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(FantasyCharacter::getId, Function.identity()));
+        List<FantasyCharacter> ranked = ids.getContent().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(ranked, pageable, ids.getTotalElements());
+    }
+    
+    /**
+     * Like {@link #searchFantasyCharacters(String, Pageable)}, but selects only the given fields
+     */
+    public Page<Map<String, Object>> searchFantasyCharacterFields(String query, List<String> fields, Pageable pageable) {
+        String tsQuery = toPrefixTsQuery(query);
+        if (tsQuery.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        
+        Page<Long> ids = fantasyCharacterRepository.searchIds(tsQuery, pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        
+        List<String> selected = fields.contains("id") ? fields : Stream.concat(Stream.of("id"), fields.stream()).toList();
+        Map<Object, Map<String, Object>> byId = fieldProjection.findAll(FantasyCharacter.class, selected,
+                        COMPUTED_FIELDS, FantasyCharacterSpecifications.idIn(ids.getContent()), NEWEST_FIRST, 0, -1)
+                .stream()
+                .collect(Collectors.toMap(row -> row.get("id"), Function.identity()));
+        List<Map<String, Object>> ranked = ids.getContent().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(ranked, pageable, ids.getTotalElements());
+    }
+    
+    /**
+     * Turns free text into a to_tsquery expression with prefix matching, e.g. "Feuer Fu" -> "feuer:* & fu:*"
      */
-    public List<FantasyCharacter> searchFantasyCharacters(String query) {
-        return fantasyCharacterRepository.findByNameOrPromptContaining(query);
+    static String toPrefixTsQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        return Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
     }
     
     /**
      * Delete a fantasy character by ID
      */
+    @Transactional
     public void deleteFantasyCharacter(Long id) {
+        characterImageService.delete(id);
         fantasyCharacterRepository.deleteById(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,163 @@
+package com.celinepokedex.service;
+
+import com.celinepokedex.model.GenerationJob;
+import com.celinepokedex.model.GenerationJobStatus;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+/**
+ * Runs image generation in the background so that requests return immediately with a job ID.
+ * Clients poll the job or subscribe to its status changes via Server-Sent Events.
+ *
+ * Jobs and subscriptions live in the memory of the node that accepted the job. With several
+ * nodes behind a load balancer, the polling and SSE requests of a client must reach the same
+ * node (sticky sessions), otherwise they get 404. Finished jobs stay available for
+ * image-generation.jobs.retention and are then removed by a periodic sweep.
+ */
+@Service
+public class GenerationJobService {
+
+    private static final Logger logger = Logger.getLogger(GenerationJobService.class.getName());
+
+    private static final long SSE_TIMEOUT_MS = 5 * 60 * 1000;
+
+    private final ImageGenerationService imageGenerationService;
+    private final TaskExecutor executor;
+    // Wie lange abgeschlossene Jobs abrufbar bleiben
+    private final Duration finishedJobRetention;
+
+    private final Map<String, GenerationJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    public GenerationJobService(ImageGenerationService imageGenerationService,
+                                @Qualifier("imageGenerationExecutor") TaskExecutor executor,
+                                @Value("${image-generation.jobs.retention:60m}") Duration finishedJobRetention) {
+        this.imageGenerationService = imageGenerationService;
+        this.executor = executor;
+        this.finishedJobRetention = finishedJobRetention;
+    }
+
+    /**
+     * Queues a generation job for the given prompt
+     *
+     * @throws TaskRejectedException if the generation queue is full
+     */
+    public GenerationJob submit(String prompt) {
+        GenerationJob job = new GenerationJob(UUID.randomUUID().toString(), prompt);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        logger.info("Queued image generation job " + job.getId());
+        return job;
+    }
+
+    public Optional<GenerationJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Subscribes to status events of a job. The current status is sent right away;
+     * the stream completes once the job has finished.
+     */
+    public Optional<SseEmitter> subscribe(String jobId) {
+        GenerationJob job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        subscribers.compute(jobId, (id, emitters) -> {
+            List<SseEmitter> list = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            return list;
+        });
+        emitter.onCompletion(() -> unsubscribe(jobId, emitter));
+        emitter.onTimeout(() -> unsubscribe(jobId, emitter));
+        emitter.onError(e -> unsubscribe(jobId, emitter));
+
+        // Erst registrieren, dann senden - so geht kein Statuswechsel dazwischen verloren.
+        // Ist der Job inzwischen fertig (auch nach dem Aufräumen in update()), schließt send() den Stream.
+        send(emitter, job);
+        if (job.getStatus().isFinished()) {
+            unsubscribe(jobId, emitter);
+        }
+        return Optional.of(emitter);
+    }
+
+    // Entfernt den Eintrag des Jobs, sobald er keine Abonnenten mehr hat
+    private void unsubscribe(String jobId, SseEmitter emitter) {
+        subscribers.computeIfPresent(jobId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private void run(GenerationJob job) {
+        update(job, GenerationJobStatus.RUNNING);
+        try {
+            String imageUrl = imageGenerationService.generateImage(job.getPrompt());
+            job.setImageUrl(imageUrl);
+            update(job, GenerationJobStatus.SUCCEEDED);
+            logger.info("Image generation job " + job.getId() + " succeeded");
+        } catch (Exception e) {
+            job.setError(e.getMessage());
+            update(job, GenerationJobStatus.FAILED);
+            logger.warning("Image generation job " + job.getId() + " failed: " + e.getMessage());
+        }
+    }
+
+    private void update(GenerationJob job, GenerationJobStatus status) {
+        job.setStatus(status);
+        // Bei Abschluss den Eintrag sofort entfernen; wer sich danach anmeldet, sieht den Endstatus in subscribe()
+        List<SseEmitter> emitters = status.isFinished()
+                ? subscribers.remove(job.getId())
+                : subscribers.get(job.getId());
+        if (emitters != null) {
+            emitters.forEach(emitter -> send(emitter, job));
+        }
+    }
+
+    private void send(SseEmitter emitter, GenerationJob job) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("status")
+                    .id(job.getId() + ":" + job.getStatus())
+                    .data(job));
+            if (job.getStatus().isFinished()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client hat die Verbindung bereits geschlossen
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Removes finished jobs older than the retention, also when no new jobs are submitted
+     */
+    @Scheduled(fixedDelayString = "${image-generation.jobs.sweep-interval-ms:60000}")
+    public void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(finishedJobRetention);
+        jobs.values().removeIf(job -> job.getStatus().isFinished() && job.getUpdatedAt().isBefore(cutoff));
+    }
+}
@@ -0,0 +1,96 @@
+package com.celinepokedex.service;
+
+import com.celinepokedex.model.GenerationResult;
+import com.celinepokedex.repository.GenerationResultRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Persistent cache of deterministic image generations: normalized prompt plus generation
+ * parameters (model, size, steps, guidance, seed) map to the Cloudinary URL of the result.
+ *
+ * The cache holds at most image-generation.cache.max-entries results; beyond that the least
+ * recently used ones are removed. The images themselves stay on Cloudinary, since saved
+ * characters may still reference them.
+ */
+@Service
+public class GenerationResultCache {
+
+    private static final Logger logger = Logger.getLogger(GenerationResultCache.class.getName());
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Zugriffszeit höchstens einmal pro Minute schreiben, nicht bei jedem Treffer
+    private static final long TOUCH_INTERVAL_SECONDS = 60;
+
+    private final GenerationResultRepository repository;
+    private final int maxEntries;
+
+    public GenerationResultCache(GenerationResultRepository repository,
+                                 @Value("${image-generation.cache.max-entries:5000}") int maxEntries) {
+        this.repository = repository;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Cache key for a prompt and the parameters it is generated with
+     */
+    public static String key(String model, String prompt, int size, int steps, double guidanceScale, long seed) {
+        String material = model + '\n' + normalize(prompt) + '\n' + size + '\n' + steps + '\n' + guidanceScale + '\n' + seed;
+        return CloudinaryService.sha256(material.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Prompts that differ only in case, Unicode form or whitespace produce the same image
+     * (the text encoder lower-cases its input), so they share one cache entry
+     */
+    static String normalize(String prompt) {
+        String normalized = Normalizer.normalize(prompt, Normalizer.Form.NFC).strip();
+        return WHITESPACE.matcher(normalized).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    public Optional<String> find(String cacheKey) {
+        Optional<GenerationResult> result = repository.findById(cacheKey);
+        result.ifPresent(r -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (r.getLastAccessedAt() == null || r.getLastAccessedAt().isBefore(now.minusSeconds(TOUCH_INTERVAL_SECONDS))) {
+                repository.touch(cacheKey, now);
+            }
+        });
+        return result.map(GenerationResult::getImageUrl);
+    }
+
+    /**
+     * Stores a result. If a parallel identical request stored the same key first, its entry is kept.
+     */
+    public void store(String cacheKey, String prompt, String imageUrl, int size, int steps, double guidanceScale, long seed) {
+        try {
+            repository.save(new GenerationResult(cacheKey, prompt, imageUrl, size, steps, guidanceScale, seed));
+        } catch (DataIntegrityViolationException e) {
+            logger.info("Generation result " + cacheKey + " was stored by a parallel request");
+            return;
+        }
+        evictLeastRecentlyUsed();
+    }
+
+    private void evictLeastRecentlyUsed() {
+        long excess = repository.count() - maxEntries;
+        if (excess <= 0) {
+            return;
+        }
+        List<String> keys = repository.findLeastRecentlyUsedKeys(PageRequest.of(0, (int) Math.min(excess, 1000)));
+        repository.deleteAllByIdInBatch(keys);
+        logger.info("Evicted " + keys.size() + " least recently used generation results");
+    }
+}
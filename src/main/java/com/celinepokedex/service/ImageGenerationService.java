@@ -6,6 +6,7 @@ import com.celinepokedex.model.DominantColor;
 import com.celinepokedex.model.ElementType;
 import com.celinepokedex.model.StyleType;
 import com.celinepokedex.util.PromptBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -17,6 +18,7 @@ import org.springframework.web.client.RestTemplate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.logging.Logger;
 
 @Service
@@ -24,31 +26,36 @@ public class ImageGenerationService {
 
     private static final Logger logger = Logger.getLogger(ImageGenerationService.class.getName());
     
+    private static final int NUM_INFERENCE_STEPS = 20;
+    private static final double GUIDANCE_SCALE = 7.5;
+    
     private final RestTemplate restTemplate;
     private final String huggingfaceToken;
     // Nutze das OpenJourney Modell
     private final String apiUrl = "https://api-inference.huggingface.co/models/prompthero/openjourney";
     private final CloudinaryService cloudinaryService;
-
-    // Timeouts
-    private static final int CONNECTION_TIMEOUT = 60000; // 60 Sekunden
-    private static final int READ_TIMEOUT = 120000;      // 120 Sekunden
-
+    private final GenerationResultCache generationResultCache;
     
+    // Deterministischer Modus: fester Seed, gleiche Prompts liefern das gecachte Bild
+    private final boolean deterministic;
+    private final long seed;
+
+    // Gepoolter Client mit langem Read-Timeout (120 Sekunden), siehe RestTemplateConfig
     public ImageGenerationService(@Value("${huggingface.token}") String huggingfaceToken, 
-                                 CloudinaryService cloudinaryService) {
-        this.restTemplate = new RestTemplate();
+                                 CloudinaryService cloudinaryService,
+                                 GenerationResultCache generationResultCache,
+                                 @Qualifier("imageGenerationRestTemplate") RestTemplate restTemplate,
+                                 @Value("${image-generation.deterministic.enabled:false}") boolean deterministic,
+                                 @Value("${image-generation.deterministic.seed:42}") long seed) {
+        this.restTemplate = restTemplate;
         this.cloudinaryService = cloudinaryService;
-        restTemplate.setRequestFactory(new org.springframework.http.client.SimpleClientHttpRequestFactory());
-        ((org.springframework.http.client.SimpleClientHttpRequestFactory) restTemplate
-            .getRequestFactory()).setConnectTimeout(CONNECTION_TIMEOUT);
-        ((org.springframework.http.client.SimpleClientHttpRequestFactory) restTemplate
-            .getRequestFactory()).setReadTimeout(READ_TIMEOUT);
+        this.generationResultCache = generationResultCache;
+        this.deterministic = deterministic;
+        this.seed = seed;
 
         this.huggingfaceToken = huggingfaceToken;
         logger.info("ImageGenerationService initialized with token: " + 
-                    (huggingfaceToken != null ? huggingfaceToken.substring(0, 5) + "..." : "null") + 
-                    " and timeouts: connect=" + CONNECTION_TIMEOUT + "ms, read=" + READ_TIMEOUT + "ms");
+                    (huggingfaceToken != null ? huggingfaceToken.substring(0, 5) + "..." : "null"));
     }
 
     public String generateFantasyCharacterImage(BaseAnimal animal, ElementType element, DominantColor dominantColor, StyleType style, List<CharacterTrait> traits) {
@@ -68,6 +75,17 @@ public class ImageGenerationService {
 
         // Starte mit 384x384, fallback auf 256x256 falls CUDA error
         int[] sizes = {384, 256};
+        
+        // Im deterministischen Modus zuerst im Cache nachsehen (Schlüssel aus den Parametern des ersten Versuchs)
+        String cacheKey = null;
+        if (deterministic) {
+            cacheKey = GenerationResultCache.key(apiUrl, journeyPrompt, sizes[0], NUM_INFERENCE_STEPS, GUIDANCE_SCALE, seed);
+            Optional<String> cached = generationResultCache.find(cacheKey);
+            if (cached.isPresent()) {
+                logger.info("Returning cached image " + cached.get());
+                return cached.get();
+            }
+        }
 
         Exception lastException = null;
         for (int attempt = 0; attempt < sizes.length; attempt++) {
@@ -81,9 +99,12 @@ public class ImageGenerationService {
                 Map<String, Object> parameters = new HashMap<>();
                 parameters.put("height", size);
                 parameters.put("width", size);
-                parameters.put("num_inference_steps", 20);
-                parameters.put("guidance_scale", 7.5);
+                parameters.put("num_inference_steps", NUM_INFERENCE_STEPS);
+                parameters.put("guidance_scale", GUIDANCE_SCALE);
                 parameters.put("negative_prompt", "blurry, bad quality, deformed, disfigured");
+                if (deterministic) {
+                    parameters.put("seed", seed);
+                }
                 // Optional: parameters.put("return_full_object", false);
 
                 Map<String, Object> requestBody = new HashMap<>();
@@ -105,6 +126,15 @@ public class ImageGenerationService {
                 if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                     String imageUrl = cloudinaryService.uploadImage(response.getBody());
                     logger.info("Image successfully generated and uploaded to Cloudinary");
+                    // Der Schlüssel gilt für die erste Größe; ein kleineres Fallback-Bild wird nicht gecacht
+                    if (cacheKey != null && size == sizes[0]) {
+                        try {
+                            generationResultCache.store(cacheKey, prompt, imageUrl, size, NUM_INFERENCE_STEPS, GUIDANCE_SCALE, seed);
+                        } catch (RuntimeException e) {
+                            // Das Bild ist fertig hochgeladen - ein fehlgeschlagener Cache-Eintrag darf die Anfrage nicht scheitern lassen
+                            logger.warning("Could not cache generation result " + cacheKey + ": " + e.getMessage());
+                        }
+                    }
                     return imageUrl;
                 } else {
                     logger.warning("Unsuccessful response: " + response.getStatusCode());
@@ -1,102 +1,195 @@
 package com.celinepokedex.service;
 
 import com.celinepokedex.model.FantasyCharacter;
+import com.celinepokedex.model.MigrationCheckpoint;
+import com.celinepokedex.repository.FantasyCharacterRepository;
+import com.celinepokedex.repository.MigrationCheckpointRepository;
+import com.celinepokedex.service.CatalogVersions.Catalog;
+import com.celinepokedex.util.RateLimiter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Base64Utils;
-import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 /**
- * Service to handle migration of images from base64 or local paths to Cloudinary URLs
+ * Service to handle migration of images from base64 or local paths to Cloudinary URLs.
+ *
+ * The migration runs in the background: it pages through the characters that still need
+ * migration in ID order, uploads each page in parallel (bounded by the migration executor and
+ * a rate limiter) and stores a checkpoint after every page, so a restart resumes where it stopped.
+ * The checkpoint never moves past a character whose migration failed, so the next run retries it;
+ * characters migrated in the meantime no longer match the query and are not uploaded again.
  */
 @Service
 public class ImageMigrationService {
     
     private static final Logger logger = Logger.getLogger(ImageMigrationService.class.getName());
     
+    public static final String CHECKPOINT_NAME = "image-migration";
+    
     private final CloudinaryService cloudinaryService;
-    private final FantasyCharacterService fantasyCharacterService;
-    private final RestTemplate restTemplate;
+    private final CharacterImageService characterImageService;
+    private final FantasyCharacterRepository fantasyCharacterRepository;
+    private final MigrationCheckpointRepository checkpointRepository;
+    private final CatalogVersions catalogVersions;
+    private final TaskExecutor executor;
+    private final RateLimiter rateLimiter;
+    private final int batchSize;
+    
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile String defaultImageUrl;
     
     // Default fallback image for missing images
     private static final String DEFAULT_IMAGE_PATH = "/Users/annakazulak/Desktop/celinepokedex/src/main/resources/static/images/default-fantasy-character.png";
     
     @Autowired
     public ImageMigrationService(CloudinaryService cloudinaryService, 
-                                FantasyCharacterService fantasyCharacterService) {
+                                CharacterImageService characterImageService,
+                                FantasyCharacterRepository fantasyCharacterRepository,
+                                MigrationCheckpointRepository checkpointRepository,
+                                CatalogVersions catalogVersions,
+                                @Qualifier("imageMigrationExecutor") TaskExecutor executor,
+                                @Value("${image-migration.uploads-per-second:2}") double uploadsPerSecond,
+                                @Value("${image-migration.batch-size:20}") int batchSize) {
         this.cloudinaryService = cloudinaryService;
-        this.fantasyCharacterService = fantasyCharacterService;
-        this.restTemplate = new RestTemplate();
+        this.characterImageService = characterImageService;
+        this.fantasyCharacterRepository = fantasyCharacterRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.catalogVersions = catalogVersions;
+        this.executor = executor;
+        this.rateLimiter = new RateLimiter(uploadsPerSecond);
+        this.batchSize = batchSize;
     }
     
     /**
-     * Migrates all fantasy character images to Cloudinary
-     * This should be called at application startup
+     * Starts the migration on a background thread and returns immediately
+     *
+     * @return false if a migration is already running
+     */
+    public boolean startMigration() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread.ofPlatform().name("image-migration").daemon(true).start(() -> {
+            try {
+                migrateAllImages();
+            } catch (Exception e) {
+                logger.severe("Image migration aborted: " + e.getMessage());
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+    
+    public boolean isRunning() {
+        return running.get();
+    }
+    
+    /**
+     * Migrates all fantasy character images to Cloudinary, resuming after the last checkpoint
      */
-    @Transactional
     public void migrateAllImages() {
-        List<FantasyCharacter> characters = fantasyCharacterService.getAllFantasyCharacters();
-        int migratedCount = 0;
-        int errorCount = 0;
+        MigrationCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_NAME)
+                .orElseGet(() -> new MigrationCheckpoint(CHECKPOINT_NAME));
+        AtomicLong migratedCount = new AtomicLong();
+        AtomicLong errorCount = new AtomicLong();
+        
+        logger.info("Starting image migration after character ID " + checkpoint.getLastProcessedId());
         
-        logger.info("Starting migration of " + characters.size() + " fantasy character images");
+        // Der Lauf selbst geht weiter, der Checkpoint bleibt vor dem ersten Fehler dieses Laufs stehen
+        long cursor = checkpoint.getLastProcessedId();
+        Long firstFailedId = null;
         
-        for (FantasyCharacter character : characters) {
-            if (character.getImageUrl() == null || needsMigration(character.getImageUrl())) {
-                try {
-                    String oldImageUrl = character.getImageUrl();
-                    String newImageUrl = migrateImage(oldImageUrl, character.getId());
-                    
-                    if (newImageUrl != null && !newImageUrl.isEmpty()) {
-                        character.setImageUrl(newImageUrl);
-                        fantasyCharacterService.saveFantasyCharacter(character);
-                        migratedCount++;
-                        logger.info("Successfully migrated image for character ID: " + character.getId());
+        List<FantasyCharacter> batch;
+        while (!(batch = fantasyCharacterRepository.findNeedingImageMigrationAfter(
+                cursor, PageRequest.of(0, batchSize))).isEmpty()) {
+            
+            List<CompletableFuture<Void>> uploads = new ArrayList<>(batch.size());
+            Set<Long> failedIds = ConcurrentHashMap.newKeySet();
+            for (FantasyCharacter character : batch) {
+                Long id = character.getId();
+                String oldImageUrl = character.getImageUrl();
+                uploads.add(CompletableFuture.runAsync(() -> {
+                    if (migrateCharacter(id, oldImageUrl)) {
+                        migratedCount.incrementAndGet();
                     } else {
-                        // Use a default image as a fallback
-                        String defaultImageUrl = uploadDefaultImage();
-                        if (defaultImageUrl != null) {
-                            character.setImageUrl(defaultImageUrl);
-                            fantasyCharacterService.saveFantasyCharacter(character);
-                            logger.warning("Using default image for character ID: " + character.getId());
-                        }
-                        errorCount++;
+                        errorCount.incrementAndGet();
+                        failedIds.add(id);
                     }
-                } catch (Exception e) {
-                    logger.severe("Error migrating image for character ID " + character.getId() + ": " + e.getMessage());
-                    errorCount++;
-                }
+                }, executor));
+            }
+            // Checkpoint erst setzen, wenn die ganze Seite verarbeitet ist
+            CompletableFuture.allOf(uploads.toArray(new CompletableFuture[0])).join();
+            catalogVersions.bump(Catalog.CHARACTERS);
+            
+            cursor = batch.get(batch.size() - 1).getId();
+            if (firstFailedId == null && !failedIds.isEmpty()) {
+                firstFailedId = Collections.min(failedIds);
             }
+            checkpoint.setLastProcessedId(firstFailedId == null ? cursor : firstFailedId - 1);
+            checkpoint.setMigratedCount(checkpoint.getMigratedCount() + migratedCount.getAndSet(0));
+            checkpoint.setErrorCount(checkpoint.getErrorCount() + errorCount.getAndSet(0));
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpoint = checkpointRepository.save(checkpoint);
+            logger.info("Image migration checkpoint at character ID " + checkpoint.getLastProcessedId());
         }
         
-        logger.info("Image migration completed. Migrated " + migratedCount + " out of " + characters.size() + 
-                    " images. Errors: " + errorCount);
+        checkpoint.setCompletedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+        logger.info("Image migration completed. Migrated " + checkpoint.getMigratedCount() + 
+                    " images in total. Errors: " + checkpoint.getErrorCount()
+                    + (firstFailedId != null ? ". Failed images are retried from character ID " + firstFailedId + " on the next run" : ""));
     }
     
     /**
-     * Determines if an image URL needs to be migrated to Cloudinary
+     * Migrates the image of one character
+     *
+     * @return true if the original image was migrated, false if a default image was used or migration failed
      */
-    private boolean needsMigration(String imageUrl) {
-        if (imageUrl == null || imageUrl.isEmpty()) {
-            return true;
-        }
-        
-        // Check if it's already a Cloudinary URL
-        if (imageUrl.contains("cloudinary.com")) {
+    private boolean migrateCharacter(Long characterId, String oldImageUrl) {
+        try {
+            rateLimiter.acquire();
+            String newImageUrl = migrateImage(oldImageUrl, characterId);
+            
+            if (newImageUrl != null && !newImageUrl.isEmpty() && !newImageUrl.equals(defaultImageUrl)) {
+                fantasyCharacterRepository.updateImageUrl(characterId, newImageUrl);
+                characterImageService.delete(characterId);
+                logger.info("Successfully migrated image for character ID: " + characterId);
+                return true;
+            }
+            
+            // Use a default image as a fallback
+            String fallbackUrl = newImageUrl != null ? newImageUrl : uploadDefaultImage();
+            if (fallbackUrl != null) {
+                fantasyCharacterRepository.updateImageUrl(characterId, fallbackUrl);
+                logger.warning("Using default image for character ID: " + characterId);
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            logger.severe("Error migrating image for character ID " + characterId + ": " + e.getMessage());
             return false;
         }
-        
-        // Check if it's a base64 image or a local path
-        return imageUrl.startsWith("data:") || 
-               imageUrl.startsWith("/api/") || 
-               imageUrl.startsWith("http://localhost");
     }
     
     /**
@@ -114,6 +207,11 @@ public class ImageMigrationService {
                 String base64Data = oldImageUrl.substring(oldImageUrl.indexOf(",") + 1);
                 byte[] imageData = Base64Utils.decodeFromString(base64Data);
                 return cloudinaryService.uploadImage(imageData);
+            } else if (oldImageUrl.equals(CharacterImageService.urlFor(characterId))) {
+                // Handle image stored in character_images
+                return characterImageService.load(characterId)
+                        .map(image -> cloudinaryService.uploadImage(image.getData()))
+                        .orElseGet(this::uploadDefaultImageOrNull);
             } else if (oldImageUrl.startsWith("/api/") || oldImageUrl.contains("localhost")) {
                 // For missing local files, use a placeholder image
                 logger.warning("Local path cannot be migrated directly: " + oldImageUrl);
@@ -133,15 +231,28 @@ public class ImageMigrationService {
         }
     }
     
+    private String uploadDefaultImageOrNull() {
+        try {
+            return uploadDefaultImage();
+        } catch (IOException e) {
+            logger.severe("Failed to upload default image: " + e.getMessage());
+            return null;
+        }
+    }
+    
     /**
      * Uploads a default image to Cloudinary for cases where the original image can't be migrated
      */
     private String uploadDefaultImage() throws IOException {
+        if (defaultImageUrl != null) {
+            return defaultImageUrl;
+        }
         try {
             // First check if we have a static default image
             byte[] defaultImageData = getDefaultImageData();
             if (defaultImageData != null) {
-                return cloudinaryService.uploadImage(defaultImageData);
+                defaultImageUrl = cloudinaryService.uploadImage(defaultImageData);
+                return defaultImageUrl;
             }
             
             // If no default image is available, generate a simple placeholder
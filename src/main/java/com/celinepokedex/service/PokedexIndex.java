@@ -0,0 +1,303 @@
+package com.celinepokedex.service;
+
+import com.celinepokedex.exception.IndexNotReadyException;
+import com.celinepokedex.model.Pokemon;
+import com.celinepokedex.model.Type;
+import com.celinepokedex.repository.PokemonRepository;
+import com.celinepokedex.service.CatalogVersions.Catalog;
+import com.celinepokedex.util.BkTree;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable in-memory read index over the Pokémon catalogue for search-as-you-type.
+ *
+ * Every lookup runs against one snapshot: the Pokémon sorted by Pokédex number, their numeric
+ * Pokédex numbers as int[], a BitSet per type, a trigram index over the folded names and a
+ * BK-tree for typo-tolerant search. Names are folded for German input: lower case,
+ * ä→ae, ö→oe, ü→ue, ß→ss and other accents removed, so "Rasaff" and "Rasäff" match alike.
+ * Whenever the CatalogVersions poll sees a new Pokémon catalogue version - written on this or
+ * another node - a new snapshot is built from the database on the poller thread and swapped in
+ * (copy-on-write), so readers never see a half-built index, never take a lock and never wait
+ * for a rebuild.
+ *
+ * The first snapshot is built when the application is ready. Requests that arrive earlier get
+ * 503 instead of building it on the request thread.
+ */
+@Service
+public class PokedexIndex {
+
+    private static final Logger logger = Logger.getLogger(PokedexIndex.class.getName());
+
+    private static final int GRAM_LENGTH = 3;
+
+    // Rangstufen der unscharfen Suche: exakte Treffer vor Präfix- vor Teilstring- vor Tippfehler-Treffern
+    private static final int RANK_EXACT = 0;
+    private static final int RANK_PREFIX = 1;
+    private static final int RANK_SUBSTRING = 2;
+    private static final int RANK_FUZZY = 3;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final PokemonRepository pokemonRepository;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    public PokedexIndex(PokemonRepository pokemonRepository) {
+        this.pokemonRepository = pokemonRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the index for a new catalogue version, on the CatalogVersions poller thread and
+     * before the new ETag becomes visible
+     */
+    @EventListener
+    public void onCatalogVersionChanged(CatalogVersionChangedEvent event) {
+        if (event.catalog() == Catalog.POKEMONS) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            snapshot = new Snapshot(pokemonRepository.findAllByOrderByPokedexNumberAsc());
+            logger.info("Pokédex index rebuilt with " + snapshot.pokemon.length + " Pokémon in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * All Pokémon, sorted by Pokédex number
+     */
+    public List<Pokemon> findAll() {
+        return Collections.unmodifiableList(Arrays.asList(current().pokemon));
+    }
+
+    /**
+     * Pokémon by Pokédex number; numeric input also matches zero-padded numbers ("25" finds "025")
+     */
+    public Optional<Pokemon> findByPokedexNumber(String pokedexNumber) {
+        return current().findByPokedexNumber(pokedexNumber);
+    }
+
+    /**
+     * Pokémon whose name contains the given text (case-insensitive) and that have one of the
+     * given types, sorted by Pokédex number. Null or empty arguments do not filter.
+     */
+    public List<Pokemon> search(String name, Collection<Type> types) {
+        return current().search(name, types);
+    }
+
+    /**
+     * Typo-tolerant name search, ranked: exact name, then names starting with the text, then names
+     * containing it, then names within a small edit distance (1 for up to 5 letters, 2 above).
+     * Ties are sorted by Pokédex number.
+     */
+    public List<Pokemon> fuzzySearch(String name, Collection<Type> types) {
+        return current().fuzzySearch(name, types);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IndexNotReadyException("Pokédex index");
+        }
+        return current;
+    }
+
+    static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = text.toLowerCase(Locale.GERMAN)
+                .replace("ä", "ae")
+                .replace("ö", "oe")
+                .replace("ü", "ue")
+                .replace("ß", "ss");
+        // Übrige Akzente entfernen (z.B. "Pokémon" -> "pokemon")
+        return DIACRITICS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    static int maxDistance(String foldedQuery) {
+        if (foldedQuery.length() <= 2) {
+            return 0;
+        }
+        return foldedQuery.length() <= 5 ? 1 : 2;
+    }
+
+    private static final class Snapshot {
+
+        private final Pokemon[] pokemon;
+        private final String[] foldedNames;
+        // Numerische Pokédex-Nummern aufsteigend, mit Position im pokemon-Array
+        private final int[] sortedNumbers;
+        private final int[] sortedNumberPositions;
+        private final Map<String, Integer> positionByPokedexNumber;
+        private final EnumMap<Type, BitSet> byType = new EnumMap<>(Type.class);
+        private final Map<String, BitSet> positionsByGram = new HashMap<>();
+        private final BkTree nameTree = new BkTree();
+
+        Snapshot(List<Pokemon> catalogue) {
+            pokemon = catalogue.toArray(new Pokemon[0]);
+            foldedNames = new String[pokemon.length];
+            positionByPokedexNumber = new HashMap<>(pokemon.length * 2);
+
+            long[] numbered = new long[pokemon.length];
+            int numberedCount = 0;
+            for (int i = 0; i < pokemon.length; i++) {
+                Pokemon p = pokemon[i];
+                foldedNames[i] = fold(p.getName());
+                nameTree.add(foldedNames[i], i);
+                positionByPokedexNumber.put(p.getPokedexNumber(), i);
+                int number = parseNumber(p.getPokedexNumber());
+                if (number >= 0) {
+                    numbered[numberedCount++] = ((long) number << 32) | i;
+                }
+                addType(p.getType1(), i);
+                addType(p.getType2(), i);
+                for (int g = 0; g + GRAM_LENGTH <= foldedNames[i].length(); g++) {
+                    positionsByGram.computeIfAbsent(foldedNames[i].substring(g, g + GRAM_LENGTH), k -> new BitSet()).set(i);
+                }
+            }
+
+            Arrays.sort(numbered, 0, numberedCount);
+            sortedNumbers = new int[numberedCount];
+            sortedNumberPositions = new int[numberedCount];
+            for (int i = 0; i < numberedCount; i++) {
+                sortedNumbers[i] = (int) (numbered[i] >>> 32);
+                sortedNumberPositions[i] = (int) numbered[i];
+            }
+        }
+
+        private void addType(Type type, int position) {
+            if (type != null) {
+                byType.computeIfAbsent(type, t -> new BitSet()).set(position);
+            }
+        }
+
+        Optional<Pokemon> findByPokedexNumber(String pokedexNumber) {
+            Integer position = positionByPokedexNumber.get(pokedexNumber);
+            if (position != null) {
+                return Optional.of(pokemon[position]);
+            }
+            int number = parseNumber(pokedexNumber);
+            int found = number >= 0 ? Arrays.binarySearch(sortedNumbers, number) : -1;
+            return found >= 0 ? Optional.of(pokemon[sortedNumberPositions[found]]) : Optional.empty();
+        }
+
+        List<Pokemon> search(String name, Collection<Type> types) {
+            BitSet candidates = typeFilter(types);
+            String query = fold(name);
+            if (query.length() >= GRAM_LENGTH) {
+                // Nur Namen, die alle Trigramme der Suche enthalten, müssen geprüft werden
+                for (int g = 0; g + GRAM_LENGTH <= query.length() && !candidates.isEmpty(); g++) {
+                    BitSet positions = positionsByGram.get(query.substring(g, g + GRAM_LENGTH));
+                    if (positions == null) {
+                        return List.of();
+                    }
+                    candidates.and(positions);
+                }
+            }
+
+            List<Pokemon> result = new ArrayList<>();
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                if (query.isEmpty() || foldedNames[i].contains(query)) {
+                    result.add(pokemon[i]);
+                }
+            }
+            return result;
+        }
+
+        List<Pokemon> fuzzySearch(String name, Collection<Type> types) {
+            String query = fold(name);
+            if (query.isEmpty()) {
+                return search(null, types);
+            }
+            BitSet allowed = typeFilter(types);
+
+            // Rang pro Position; kleinere Werte zuerst
+            int[] ranks = new int[pokemon.length];
+            Arrays.fill(ranks, Integer.MAX_VALUE);
+            for (Pokemon p : search(name, types)) {
+                int i = positionByPokedexNumber.get(p.getPokedexNumber());
+                ranks[i] = foldedNames[i].equals(query) ? RANK_EXACT
+                        : foldedNames[i].startsWith(query) ? RANK_PREFIX
+                        : RANK_SUBSTRING;
+            }
+            for (BkTree.Match match : nameTree.search(query, maxDistance(query))) {
+                BitSet positions = match.positions();
+                for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+                    if (allowed.get(i)) {
+                        ranks[i] = Math.min(ranks[i], RANK_FUZZY + match.distance());
+                    }
+                }
+            }
+
+            List<Integer> hits = new ArrayList<>();
+            for (int i = 0; i < ranks.length; i++) {
+                if (ranks[i] != Integer.MAX_VALUE) {
+                    hits.add(i);
+                }
+            }
+            hits.sort((a, b) -> ranks[a] != ranks[b] ? Integer.compare(ranks[a], ranks[b]) : Integer.compare(a, b));
+            return hits.stream().map(i -> pokemon[i]).toList();
+        }
+
+        private BitSet typeFilter(Collection<Type> types) {
+            BitSet candidates = new BitSet(pokemon.length);
+            if (types == null || types.isEmpty()) {
+                candidates.set(0, pokemon.length);
+                return candidates;
+            }
+            for (Type type : types) {
+                BitSet bits = byType.get(type);
+                if (bits != null) {
+                    candidates.or(bits);
+                }
+            }
+            return candidates;
+        }
+
+        private static int parseNumber(String pokedexNumber) {
+            if (pokedexNumber == null || pokedexNumber.isEmpty() || pokedexNumber.length() > 9) {
+                return -1;
+            }
+            int number = 0;
+            for (int i = 0; i < pokedexNumber.length(); i++) {
+                char c = pokedexNumber.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                number = number * 10 + (c - '0');
+            }
+            return number;
+        }
+    }
+}
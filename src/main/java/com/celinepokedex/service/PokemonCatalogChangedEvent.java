@@ -0,0 +1,9 @@
+package com.celinepokedex.service;
+
+/**
+ * Published after Pokémon rows were created, updated or deleted
+ *
+ * @param pokedexNumber The changed Pokémon, or null if several changed
+ */
+public record PokemonCatalogChangedEvent(String pokedexNumber) {
+}
@@ -1,44 +1,131 @@
 package com.celinepokedex.service;
 
-import com.celinepokedex.config.CacheConfig;
+import com.celinepokedex.client.PokeApiClient;
 import com.celinepokedex.model.EvolutionChain;
+import com.celinepokedex.model.EvolutionChainSnapshot;
 import com.celinepokedex.model.Pokemon;
+import com.celinepokedex.repository.EvolutionChainSnapshotRepository;
 import com.celinepokedex.repository.PokemonRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
 
 @Service
 public class PokemonEvolutionService {
 
-    private static final String POKEAPI_EVOLUTION_URL = "https://pokeapi.co/api/v2/evolution-chain/";
-    private static final String POKEAPI_POKEMON_URL = "https://pokeapi.co/api/v2/pokemon/";
-    private static final String POKEAPI_SPECIES_URL = "https://pokeapi.co/api/v2/pokemon-species/";
-    
+    private static final Logger logger = Logger.getLogger(PokemonEvolutionService.class.getName());
+
     @Autowired
     private PokemonRepository pokemonRepository;
     
     @Autowired
-    private RestTemplate restTemplate;
+    private PokeApiClient pokeApiClient;
+    
+    @Autowired
+    private EvolutionChainSnapshotRepository snapshotRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    // Wird bei jeder Invalidierung erhöht; ein Aufbau, der davor begonnen hat, darf nicht gespeichert bleiben
+    private final AtomicLong invalidationGeneration = new AtomicLong();
     
     /**
-     * Fetches evolution chain data for a specific Pokemon
+     * Fetches evolution chain data for a specific Pokemon.
+     * Reads the materialized chain if there is one, otherwise builds it and stores it.
      */
     public Optional<EvolutionChain> getEvolutionChainForPokemon(Pokemon pokemon) {
         if (pokemon.getEvolutionChainId() == null) {
             return Optional.empty();
         }
         
+        Optional<EvolutionChain> snapshot = readSnapshot(pokemon.getEvolutionChainId());
+        if (snapshot.isPresent()) {
+            return snapshot;
+        }
+        
+        long generation = invalidationGeneration.get();
+        BuildResult result = buildEvolutionChain(pokemon);
+        // Nur vollständige Ketten materialisieren - nicht die Notlösung ohne PokéAPI-Daten oder mit Platzhaltern
+        if (result.chain().isPresent() && result.complete()) {
+            writeSnapshot(result.chain().get(), generation);
+        }
+        return result.chain();
+    }
+    
+    /**
+     * Removes the materialized chains affected by a write to a Pokémon: its own chain and
+     * every chain that lists it as a member
+     */
+    @Transactional
+    public void invalidateEvolutionChains(String pokedexNumber, Integer evolutionChainId) {
+        // Zuerst erhöhen, dann löschen: so verwirft entweder writeSnapshot oder dieses Löschen einen veralteten Aufbau
+        invalidationGeneration.incrementAndGet();
+        if (evolutionChainId != null && snapshotRepository.existsById(evolutionChainId)) {
+            snapshotRepository.deleteById(evolutionChainId);
+        }
+        if (pokedexNumber != null) {
+            snapshotRepository.deleteAll(snapshotRepository.findByMemberPokedexNumbersContaining(pokedexNumber));
+        }
+    }
+    
+    private Optional<EvolutionChain> readSnapshot(Integer chainId) {
+        return snapshotRepository.findById(chainId).flatMap(snapshot -> {
+            try {
+                return Optional.of(objectMapper.readValue(snapshot.getPayload(), EvolutionChain.class));
+            } catch (JsonProcessingException e) {
+                logger.warning("Discarding unreadable evolution chain snapshot " + chainId + ": " + e.getMessage());
+                return Optional.empty();
+            }
+        });
+    }
+    
+    /**
+     * Stores a built chain. If an invalidation ran since the build started (generation changed),
+     * the chain may be stale and the stored snapshot is removed again.
+     */
+    private void writeSnapshot(EvolutionChain chain, long generation) {
+        Set<String> members = new HashSet<>();
+        chain.getStages().forEach(stage -> members.add(stage.getPokemon().getPokedexNumber()));
+        chain.getBranches().values().forEach(stages ->
+                stages.forEach(stage -> members.add(stage.getPokemon().getPokedexNumber())));
+        try {
+            snapshotRepository.save(new EvolutionChainSnapshot(chain.getId(), objectMapper.writeValueAsString(chain), members));
+            if (invalidationGeneration.get() != generation) {
+                logger.info("Evolution chain " + chain.getId() + " was invalidated while being built, discarding snapshot");
+                snapshotRepository.deleteById(chain.getId());
+            }
+        } catch (JsonProcessingException | DataAccessException e) {
+            // Z.B. paralleler Aufbau derselben Kette - die Antwort ist trotzdem gültig
+            logger.warning("Could not store evolution chain snapshot " + chain.getId() + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Builds the evolution chain from local data merged with PokéAPI data
+     */
+    private BuildResult buildEvolutionChain(Pokemon pokemon) {
         EvolutionChain evolutionChain = new EvolutionChain();
         evolutionChain.setId(pokemon.getEvolutionChainId());
         
@@ -49,14 +136,25 @@ public class PokemonEvolutionService {
             // Wir haben lokale Daten - baue die Kette daraus auf
             Map<String, Boolean> userCollectionMap = new HashMap<>();
             
+            // Eltern → Kinder-Graph im Speicher, Schlüssel ist die Pokédex-Nummer des Eltern-Pokémon
+            Map<String, List<Pokemon>> evolutionsByParent = new HashMap<>();
+            Map<String, Pokemon> chainMembers = new HashMap<>();
+            
             // Erstelle eine Map von Pokédex-Nummern, die in der Benutzerdatenbank vorhanden sind
             for (Pokemon evo : evolutions) {
                 userCollectionMap.put(evo.getPokedexNumber(), true);
+                chainMembers.put(evo.getPokedexNumber(), evo);
+                if (evo.getEvolvesFromId() != null) {
+                    evolutionsByParent.computeIfAbsent(evo.getEvolvesFromId(), key -> new ArrayList<>()).add(evo);
+                }
             }
             
             // Versuche, zusätzliche Pokémon aus der API zu holen, falls die Kette unvollständig ist
+            boolean apiDataIncluded = false;
+            Set<String> placeholders = new HashSet<>();
             try {
-                Optional<EvolutionChain> apiChain = fetchEvolutionChainFromApi(pokemon.getEvolutionChainId());
+                Optional<EvolutionChain> apiChain = fetchEvolutionChainFromApi(pokemon.getEvolutionChainId(), chainMembers, placeholders);
+                apiDataIncluded = apiChain.isPresent();
                 if (apiChain.isPresent() && apiChain.get().getStages() != null) {
                     // Füge PokeAPI-Daten mit inUserCollection=false hinzu, wenn sie nicht in unserer DB sind
                     for (EvolutionChain.EvolutionStage stage : apiChain.get().getStages()) {
@@ -97,7 +195,7 @@ public class PokemonEvolutionService {
                 // Prüfen, ob es eine Standardentwicklung oder eine Verzweigungsentwicklung ist
                 if (evo.getEvolvesFromId() != null) {
                     // Prüfen ob mehrere Pokémon vom selben Pokémon evolvieren (Verzweigung)
-                    List<Pokemon> siblingEvolutions = pokemonRepository.findByEvolvesFromId(evo.getEvolvesFromId());
+                    List<Pokemon> siblingEvolutions = evolutionsByParent.get(evo.getEvolvesFromId());
                     if (siblingEvolutions.size() > 1) {
                         // Es ist eine Verzweigungsentwicklung
                         evolutionChain.addBranch(evo.getEvolvesFromId(), 
@@ -114,11 +212,12 @@ public class PokemonEvolutionService {
                 }
             }
             
-            return Optional.of(evolutionChain);
+            return new BuildResult(Optional.of(evolutionChain), apiDataIncluded && placeholders.isEmpty());
         } else {
             // Keine lokalen Daten - versuche, von der PokéAPI zu holen
+            Set<String> placeholders = new HashSet<>();
             try {
-                Optional<EvolutionChain> apiChain = fetchEvolutionChainFromApi(pokemon.getEvolutionChainId());
+                Optional<EvolutionChain> apiChain = fetchEvolutionChainFromApi(pokemon.getEvolutionChainId(), new HashMap<>(), placeholders);
                 if (apiChain.isPresent()) {
                     // Markiere alle Pokémon aus der API als nicht in der Benutzersammlung
                     for (EvolutionChain.EvolutionStage stage : apiChain.get().getStages()) {
@@ -134,31 +233,51 @@ public class PokemonEvolutionService {
                         }
                     }
                 }
-                return apiChain;
+                return new BuildResult(apiChain, apiChain.isPresent() && placeholders.isEmpty());
             } catch (Exception e) {
-                return Optional.empty();
+                return new BuildResult(Optional.empty(), false);
             }
         }
     }
     
     /**
-     * Fetches an evolution chain from the PokéAPI
+     * Fetches an evolution chain from the PokéAPI (raw JSON is cached in PokeApiClient).
+     * Uses a constant number of queries: one batch read of the chain members not already
+     * known and one batched save of the members whose evolution data changed.
+     *
+     * @param knownPokemon chain members already loaded by the caller, keyed by Pokédex number
+     * @param placeholders collects the Pokédex numbers of members whose species could not be fetched
      */
-    @Cacheable(value = CacheConfig.POKEAPI_EVOLUTION_CHAIN_CACHE, key = "#chainId")
-    private Optional<EvolutionChain> fetchEvolutionChainFromApi(Integer chainId) {
+    private Optional<EvolutionChain> fetchEvolutionChainFromApi(Integer chainId, Map<String, Pokemon> knownPokemon,
+                                                                Set<String> placeholders) {
         try {
-            String url = POKEAPI_EVOLUTION_URL + chainId;
-            String jsonResponse = restTemplate.getForObject(url, String.class);
-            
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode rootNode = mapper.readTree(jsonResponse);
+            JsonNode rootNode = pokeApiClient.fetchEvolutionChain(chainId);
             
             EvolutionChain chain = new EvolutionChain();
             chain.setId(chainId);
             
             // Parse the chain starting from the base form
             JsonNode chainNode = rootNode.path("chain");
-            processEvolutionChain(chainNode, chain, null, null);
+            
+            // Alle Pokémon der Kette mit einer Abfrage laden
+            Set<String> pokedexNumbers = new HashSet<>();
+            collectPokedexNumbers(chainNode, pokedexNumbers);
+            Map<String, Pokemon> localPokemon = new HashMap<>(knownPokemon);
+            pokedexNumbers.removeAll(localPokemon.keySet());
+            if (!pokedexNumbers.isEmpty()) {
+                for (Pokemon p : pokemonRepository.findAllById(pokedexNumbers)) {
+                    localPokemon.put(p.getPokedexNumber(), p);
+                }
+            }
+            
+            Set<Pokemon> changed = new LinkedHashSet<>();
+            processEvolutionChain(chainNode, chain, null, null, localPokemon, changed, placeholders);
+            
+            // Geänderte Evolutionsdaten gesammelt speichern
+            if (!changed.isEmpty()) {
+                pokemonRepository.saveAll(changed);
+                eventPublisher.publishEvent(new PokemonCatalogChangedEvent(null));
+            }
             
             return Optional.of(chain);
         } catch (Exception e) {
@@ -166,17 +285,32 @@ public class PokemonEvolutionService {
         }
     }
     
+    /**
+     * Collects the Pokédex numbers of all species in the evolution chain JSON
+     */
+    private void collectPokedexNumbers(JsonNode chainNode, Set<String> pokedexNumbers) {
+        pokedexNumbers.add(extractPokedexNumber(chainNode.path("species").path("url").asText()));
+        for (JsonNode evolvesTo : chainNode.path("evolves_to")) {
+            collectPokedexNumbers(evolvesTo, pokedexNumbers);
+        }
+    }
+    
     /**
      * Recursively processes the evolution chain JSON from PokéAPI
+     *
+     * @param localPokemon Pokémon from our database, keyed by Pokédex number
+     * @param changed collects local Pokémon whose evolution data was updated
+     * @param placeholders collects the Pokédex numbers of members that fell back to a placeholder
      */
-    private void processEvolutionChain(JsonNode chainNode, EvolutionChain chain, String trigger, String condition) {
+    private void processEvolutionChain(JsonNode chainNode, EvolutionChain chain, String trigger, String condition,
+                                       Map<String, Pokemon> localPokemon, Set<Pokemon> changed, Set<String> placeholders) {
         // Extract the species data
         JsonNode speciesNode = chainNode.path("species");
         String speciesUrl = speciesNode.path("url").asText();
         String pokedexNumber = extractPokedexNumber(speciesUrl);
         
         // Try to find this Pokemon in our database
-        Optional<Pokemon> pokemonOpt = pokemonRepository.findById(pokedexNumber);
+        Optional<Pokemon> pokemonOpt = Optional.ofNullable(localPokemon.get(pokedexNumber));
         
         Pokemon pokemon;
         boolean inUserCollection = false;
@@ -187,11 +321,13 @@ public class PokemonEvolutionService {
             inUserCollection = true;
             
             // Update evolution data in our database if needed
-            pokemon.setEvolutionChainId(chain.getId());
-            pokemonRepository.save(pokemon);
+            if (!Objects.equals(pokemon.getEvolutionChainId(), chain.getId())) {
+                pokemon.setEvolutionChainId(chain.getId());
+                changed.add(pokemon);
+            }
         } else {
             // Benutzer hat dieses Pokémon noch nicht - erstelle eine temporäre Version aus der API
-            pokemon = createTemporaryPokemonFromApi(pokedexNumber);
+            pokemon = createTemporaryPokemonFromApi(pokedexNumber, placeholders);
             inUserCollection = false;
         }
         
@@ -239,7 +375,7 @@ public class PokemonEvolutionService {
                 String branchPokedexNumber = extractPokedexNumber(branchSpeciesUrl);
                 
                 // Versuche, dieses Pokémon in unserer Datenbank zu finden
-                Optional<Pokemon> branchPokemonOpt = pokemonRepository.findById(branchPokedexNumber);
+                Optional<Pokemon> branchPokemonOpt = Optional.ofNullable(localPokemon.get(branchPokedexNumber));
                 
                 Pokemon branchPokemon;
                 boolean branchInUserCollection = false;
@@ -249,11 +385,14 @@ public class PokemonEvolutionService {
                     branchInUserCollection = true;
                     
                     // Update evolution data in our database
-                    branchPokemon.setEvolutionChainId(chain.getId());
-                    branchPokemon.setEvolvesFromId(pokedexNumber);  // Set the evolution source
-                    pokemonRepository.save(branchPokemon);
+                    if (!Objects.equals(branchPokemon.getEvolutionChainId(), chain.getId())
+                            || !Objects.equals(branchPokemon.getEvolvesFromId(), pokedexNumber)) {
+                        branchPokemon.setEvolutionChainId(chain.getId());
+                        branchPokemon.setEvolvesFromId(pokedexNumber);  // Set the evolution source
+                        changed.add(branchPokemon);
+                    }
                 } else {
-                    branchPokemon = createTemporaryPokemonFromApi(branchPokedexNumber);
+                    branchPokemon = createTemporaryPokemonFromApi(branchPokedexNumber, placeholders);
                     branchInUserCollection = false;
                 }
                 
@@ -265,7 +404,7 @@ public class PokemonEvolutionService {
                 
                 // Rekursiv weiterverarbeiten für weitere Entwicklungen dieser Verzweigung
                 if (evolvesTo.path("evolves_to").size() > 0) {
-                    processEvolutionChain(evolvesTo, chain, nextTrigger, nextCondition);
+                    processEvolutionChain(evolvesTo, chain, nextTrigger, nextCondition, localPokemon, changed, placeholders);
                 }
             }
         } else {
@@ -299,28 +438,30 @@ public class PokemonEvolutionService {
                 String currentPokedexNumber = extractPokedexNumber(speciesUrl);
                 
                 // Recursive call for next evolution
-                processEvolutionChain(evolvesTo, chain, nextTrigger, nextCondition);
+                processEvolutionChain(evolvesTo, chain, nextTrigger, nextCondition, localPokemon, changed, placeholders);
                 
                 // Update evolvesFromId in the database for the next evolution
                 JsonNode nextSpeciesNode = evolvesTo.path("species");
                 String nextSpeciesUrl = nextSpeciesNode.path("url").asText();
                 String nextPokedexNumber = extractPokedexNumber(nextSpeciesUrl);
                 
-                pokemonRepository.findById(nextPokedexNumber).ifPresent(p -> {
-                    p.setEvolvesFromId(currentPokedexNumber);
-                    pokemonRepository.save(p);
-                });
+                Pokemon nextPokemon = localPokemon.get(nextPokedexNumber);
+                if (nextPokemon != null && !Objects.equals(nextPokemon.getEvolvesFromId(), currentPokedexNumber)) {
+                    nextPokemon.setEvolvesFromId(currentPokedexNumber);
+                    changed.add(nextPokemon);
+                }
             }
         }
     }
     
     /**
-     * Erstellt ein temporäres Pokémon-Objekt aus der API für die Evolutionskette
+     * Erstellt ein temporäres Pokémon-Objekt aus der API für die Evolutionskette.
+     * Schlägt der Abruf fehl, wird ein Platzhalter geliefert und in placeholders vermerkt.
      */
-    private Pokemon createTemporaryPokemonFromApi(String pokedexNumber) {
+    private Pokemon createTemporaryPokemonFromApi(String pokedexNumber, Set<String> placeholders) {
         try {
             // Versuche zuerst mit dem species-Endpunkt, um den Namen zu erhalten
-            JsonNode speciesNode = fetchPokemonSpeciesData(pokedexNumber);
+            JsonNode speciesNode = pokeApiClient.fetchSpecies(pokedexNumber);
             
             // Extrahiere die wichtigsten Informationen
             String name = speciesNode.path("name").asText();
@@ -338,7 +479,7 @@ public class PokemonEvolutionService {
             }
             
             // Bild-URL aus dem regulären Pokémon-Endpunkt holen
-            JsonNode pokemonNode = fetchPokemonData(pokedexNumber);
+            JsonNode pokemonNode = pokeApiClient.fetchPokemon(pokedexNumber);
             
             // Offizielle Artwork-URL extrahieren
             String imageUrl = pokemonNode.path("sprites")
@@ -359,7 +500,8 @@ public class PokemonEvolutionService {
             
             return pokemon;
         } catch (Exception e) {
-            // Wenn API-Aufruf fehlschlägt, erstelle ein Dummy-Pokémon
+            // Wenn API-Aufruf fehlschlägt, erstelle ein Dummy-Pokémon (die Kette wird dann nicht materialisiert)
+            placeholders.add(pokedexNumber);
             Pokemon pokemon = new Pokemon();
             pokemon.setPokedexNumber(String.format("%03d", Integer.parseInt(pokedexNumber)));
             pokemon.setName("Pokemon #" + pokedexNumber);
@@ -368,26 +510,7 @@ public class PokemonEvolutionService {
         }
     }
     
-    /**
-     * Ruft Pokemon-Daten von der PokeAPI ab mit Caching
-     */
-    @Cacheable(value = CacheConfig.POKEAPI_POKEMON_CACHE, key = "#pokedexNumber")
-    public JsonNode fetchPokemonData(String pokedexNumber) throws Exception {
-        String pokemonUrl = POKEAPI_POKEMON_URL + pokedexNumber;
-        String pokemonResponse = restTemplate.getForObject(pokemonUrl, String.class);
-        ObjectMapper mapper = new ObjectMapper();
-        return mapper.readTree(pokemonResponse);
-    }
-    
-    /**
-     * Ruft Pokemon-Species-Daten von der PokeAPI ab mit Caching
-     */
-    @Cacheable(value = CacheConfig.POKEAPI_SPECIES_CACHE, key = "#pokedexNumber")
-    public JsonNode fetchPokemonSpeciesData(String pokedexNumber) throws Exception {
-        String speciesUrl = POKEAPI_SPECIES_URL + pokedexNumber;
-        String speciesResponse = restTemplate.getForObject(speciesUrl, String.class);
-        ObjectMapper mapper = new ObjectMapper();
-        return mapper.readTree(speciesResponse);
+    private record BuildResult(Optional<EvolutionChain> chain, boolean complete) {
     }
     
     /**
@@ -0,0 +1,106 @@
+package com.celinepokedex.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BK-tree over words for typo-tolerant lookups by Levenshtein distance.
+ * Each word carries the positions of the entries it belongs to; equal words share a node.
+ * A search only descends into children whose edge distance lies within
+ * [d - maxDistance, d + maxDistance], so most of the tree is skipped.
+ */
+public class BkTree {
+
+    private Node root;
+
+    /**
+     * A word within the searched distance, with the positions added for it
+     */
+    public record Match(String word, BitSet positions, int distance) {
+    }
+
+    public void add(String word, int position) {
+        if (root == null) {
+            root = new Node(word);
+            root.positions.set(position);
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = levenshtein(word, node.word);
+            if (distance == 0) {
+                node.positions.set(position);
+                return;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                child = new Node(word);
+                child.positions.set(position);
+                node.children.put(distance, child);
+                return;
+            }
+            node = child;
+        }
+    }
+
+    public List<Match> search(String query, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        if (root == null) {
+            return matches;
+        }
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = levenshtein(query, node.word);
+            if (distance <= maxDistance) {
+                matches.add(new Match(node.word, node.positions, distance));
+            }
+            for (int d = Math.max(1, distance - maxDistance); d <= distance + maxDistance; d++) {
+                Node child = node.children.get(d);
+                if (child != null) {
+                    pending.push(child);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Levenshtein distance with two rolling rows
+     */
+    public static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Node {
+        private final String word;
+        private final BitSet positions = new BitSet();
+        private final Map<Integer, Node> children = new HashMap<>(4);
+
+        Node(String word) {
+            this.word = word;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.celinepokedex.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parses the fields= selector of list endpoints, e.g. "fields=name,imageUrl" or "fields=card"
+ */
+public class FieldSelection {
+
+    public static final String CARD = "card";
+
+    private FieldSelection() {
+    }
+
+    /**
+     * @param fields Comma-separated field names or "card", null or empty for no projection
+     * @param allowed Whitelist of selectable fields
+     * @param cardFields Fields selected by the "card" shorthand
+     * @param idField Field that is always included (needed for links and cursors)
+     * @return The fields to select in response order, or null if no projection was requested
+     * @throws IllegalArgumentException if a field is not selectable
+     */
+    public static List<String> parse(String fields, Set<String> allowed, List<String> cardFields, String idField) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        if (CARD.equals(fields.trim())) {
+            return cardFields;
+        }
+
+        List<String> selected = new ArrayList<>();
+        selected.add(idField);
+        for (String field : Arrays.stream(fields.split(",")).map(String::trim).filter(f -> !f.isEmpty()).toList()) {
+            if (!allowed.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+            if (!selected.contains(field)) {
+                selected.add(field);
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,34 @@
+package com.celinepokedex.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simple blocking rate limiter that spaces out permits evenly.
+ * Each caller reserves the next free slot and sleeps until it is due, so concurrent
+ * callers never exceed the configured rate in total.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private final AtomicLong nextFreeSlot = new AtomicLong(System.nanoTime());
+
+    public RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    /**
+     * Blocks until a permit is available
+     */
+    public void acquire() throws InterruptedException {
+        long now = System.nanoTime();
+        long slot = nextFreeSlot.getAndUpdate(next -> Math.max(next, now) + intervalNanos);
+        long waitNanos = Math.max(slot, now) - now;
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
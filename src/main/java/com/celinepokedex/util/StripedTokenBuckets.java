@@ -0,0 +1,64 @@
+package com.celinepokedex.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free token buckets for many keys in a fixed amount of memory.
+ *
+ * Keys are hashed onto a fixed number of stripes; each stripe is one AtomicLong holding the
+ * time at which its bucket will be full again (GCRA, equivalent to a token bucket). Taking a
+ * token is a single CAS. Keys that share a stripe share a bucket, which only ever makes
+ * throttling stricter, never looser.
+ */
+public class StripedTokenBuckets {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLongArray fullAt;
+    private final int mask;
+    private final long origin = System.nanoTime();
+
+    /**
+     * @param capacity      tokens a bucket holds (allowed burst)
+     * @param refillPeriod  time to refill one token
+     * @param stripes       number of buckets, rounded up to a power of two
+     */
+    public StripedTokenBuckets(int capacity, Duration refillPeriod, int stripes) {
+        if (capacity < 1 || refillPeriod.isNegative() || refillPeriod.isZero() || stripes < 1) {
+            throw new IllegalArgumentException("capacity, refillPeriod and stripes must be positive");
+        }
+        this.intervalNanos = refillPeriod.toNanos();
+        this.burstNanos = intervalNanos * capacity;
+        int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.fullAt = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Takes one token from the bucket of the key
+     *
+     * @return Duration.ZERO if a token was taken, otherwise the time until the next token is available
+     */
+    public Duration tryAcquire(String key) {
+        int stripe = spread(key.hashCode()) & mask;
+        long now = System.nanoTime() - origin;
+        while (true) {
+            long current = fullAt.get(stripe);
+            long next = Math.max(current, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                return Duration.ofNanos(next - now - burstNanos);
+            }
+            if (fullAt.compareAndSet(stripe, current, next)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    // Hashbits mischen, damit ähnliche Schlüssel (z.B. IPs) nicht auf benachbarte Stripes fallen
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        return hash ^ (hash >>> 16);
+    }
+}
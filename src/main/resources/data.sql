@@ -18,6 +18,10 @@ CREATE TABLE IF NOT EXISTS pokemon (
     evolution_condition TEXT
 );
 
+-- Indizes für die Typ-Filter (type1 IN ... OR type2 IN ..., sortiert nach Pokédex-Nummer)
+CREATE INDEX IF NOT EXISTS idx_pokemon_type1 ON pokemon (type1, pokedex_number);
+CREATE INDEX IF NOT EXISTS idx_pokemon_type2 ON pokemon (type2, pokedex_number);
+
 -- Glumanda Evolution-Kette (ID: 2)
 INSERT INTO pokemon (name, pokedex_number, description, type1, type2, height, weight, image_url, category, ability, evolution_chain_id, evolves_from_id, evolution_trigger, evolution_condition) VALUES
 ('Glumanda', '004', 'Die Flamme auf der Schwanzspitze zeigt seine Lebensenergie an. Ist es gesund, leuchtet sie hell.', 'FEUER', NULL, 0.6, 8.5, 'https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/other/official-artwork/4.png', 'Echsen-Pokémon', 'Großbrand', 2, NULL, NULL, NULL);
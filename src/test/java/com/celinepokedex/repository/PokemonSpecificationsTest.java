@@ -0,0 +1,22 @@
+package com.celinepokedex.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PokemonSpecificationsTest {
+
+    @Test
+    void escapeLikeTreatsWildcardsLiterally() {
+        assertThat(PokemonSpecifications.escapeLike("100%")).isEqualTo("100\\%");
+        assertThat(PokemonSpecifications.escapeLike("mr_mime")).isEqualTo("mr\\_mime");
+        assertThat(PokemonSpecifications.escapeLike("pikachu")).isEqualTo("pikachu");
+    }
+
+    @Test
+    void escapeLikeEscapesEscapeCharacterFirst() {
+        // Sonst würde aus "\%" ein "\\%" und das % wieder zum Platzhalter
+        assertThat(PokemonSpecifications.escapeLike("a\\%")).isEqualTo("a\\\\\\%");
+        assertThat(PokemonSpecifications.escapeLike("\\")).isEqualTo("\\\\");
+    }
+}
@@ -0,0 +1,138 @@
+package com.celinepokedex.security;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyRingTest {
+
+    private static final String PASSWORD = "changeit";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void signsWithActiveKidAndVerifiesWithAllKeys() throws Exception {
+        byte[] k1 = randomKey(32);
+        byte[] k2 = randomKey(32);
+        Path keystore = keystore("keys.p12", Map.of("k1", k1, "k2", k2));
+
+        JwtKeyRing beforeRotation = new JwtKeyRing(keystore.toString(), PASSWORD, "PKCS12", "k1");
+        JwtKeyRing afterRotation = new JwtKeyRing(keystore.toString(), PASSWORD, "PKCS12", "k2");
+        assertThat(beforeRotation.getActiveKid()).isEqualTo("k1");
+        assertThat(afterRotation.getActiveKid()).isEqualTo("k2");
+
+        String oldToken = new JwtTokenProvider(beforeRotation, 100).generateToken("ash", "USER");
+        JwtTokenProvider rotated = new JwtTokenProvider(afterRotation, 100);
+        String newToken = rotated.generateToken("misty", "ADMIN");
+
+        // Nach dem Umschalten bleiben die mit k1 signierten Tokens gültig
+        assertThat(kid(oldToken)).isEqualTo("k1");
+        assertThat(kid(newToken)).isEqualTo("k2");
+        assertThat(rotated.validateToken(oldToken)).isTrue();
+        assertThat(rotated.getUsernameFromToken(oldToken)).isEqualTo("ash");
+        assertThat(rotated.getRoleFromToken(oldToken)).isEqualTo("ROLE_USER");
+        assertThat(rotated.getUsernameFromToken(newToken)).isEqualTo("misty");
+    }
+
+    @Test
+    void rejectsTokensOfRemovedKeys() throws Exception {
+        byte[] k1 = randomKey(32);
+        byte[] k2 = randomKey(32);
+        JwtKeyRing old = new JwtKeyRing(keystore("old.p12", Map.of("k1", k1, "k2", k2)).toString(), PASSWORD, "PKCS12", "k1");
+        JwtKeyRing cleaned = new JwtKeyRing(keystore("new.p12", Map.of("k2", k2)).toString(), PASSWORD, "PKCS12", "k2");
+
+        String oldToken = new JwtTokenProvider(old, 100).generateToken("ash", "USER");
+
+        assertThat(cleaned.getKey("k1")).isNull();
+        assertThat(new JwtTokenProvider(cleaned, 100).verify(oldToken)).isEmpty();
+    }
+
+    @Test
+    void rejectsTokensSignedWithAnotherKeyUnderTheSameKid() throws Exception {
+        JwtKeyRing one = new JwtKeyRing(keystore("one.p12", Map.of("k1", randomKey(32))).toString(), PASSWORD, "PKCS12", "k1");
+        JwtKeyRing other = new JwtKeyRing(keystore("other.p12", Map.of("k1", randomKey(32))).toString(), PASSWORD, "PKCS12", "k1");
+
+        String token = new JwtTokenProvider(one, 100).generateToken("ash", "USER");
+
+        assertThat(new JwtTokenProvider(other, 100).validateToken(token)).isFalse();
+    }
+
+    @Test
+    void selectsTheOnlyKeyWithoutActiveKid() throws Exception {
+        JwtKeyRing ring = new JwtKeyRing(keystore("single.p12", Map.of("k1", randomKey(48))).toString(), PASSWORD, "PKCS12", "");
+
+        assertThat(ring.getActiveKid()).isEqualTo("k1");
+        assertThat(ring.getActiveKey().getAlgorithm()).isEqualTo("HmacSHA384");
+    }
+
+    @Test
+    void failsOnUnknownActiveKid() throws Exception {
+        Path keystore = keystore("keys.p12", Map.of("k1", randomKey(32), "k2", randomKey(32)));
+
+        assertThatThrownBy(() -> new JwtKeyRing(keystore.toString(), PASSWORD, "PKCS12", "k3"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("k3");
+        // Bei mehreren Schlüsseln muss der aktive angegeben werden
+        assertThatThrownBy(() -> new JwtKeyRing(keystore.toString(), PASSWORD, "PKCS12", ""))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void failsOnKeysShorterThan256Bits() throws Exception {
+        Path keystore = keystore("short.p12", Map.of("k1", randomKey(16)));
+
+        assertThatThrownBy(() -> new JwtKeyRing(keystore.toString(), PASSWORD, "PKCS12", "k1"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("256 bits");
+    }
+
+    @Test
+    void usesEphemeralKeyWithoutKeystore() {
+        JwtKeyRing ring = new JwtKeyRing("", "", "PKCS12", "");
+        JwtTokenProvider provider = new JwtTokenProvider(ring, 100);
+
+        String token = provider.generateToken("ash", "USER");
+
+        assertThat(ring.getActiveKid()).startsWith("ephemeral-");
+        assertThat(provider.getUsernameFromToken(token)).isEqualTo("ash");
+        assertThat(new JwtTokenProvider(new JwtKeyRing("", "", "PKCS12", ""), 100).validateToken(token)).isFalse();
+    }
+
+    private Path keystore(String name, Map<String, byte[]> keys) throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, null);
+        KeyStore.PasswordProtection protection = new KeyStore.PasswordProtection(PASSWORD.toCharArray());
+        for (Map.Entry<String, byte[]> key : keys.entrySet()) {
+            keyStore.setEntry(key.getKey(), new KeyStore.SecretKeyEntry(new SecretKeySpec(key.getValue(), "HmacSHA256")), protection);
+        }
+        Path path = tempDir.resolve(name);
+        try (OutputStream out = Files.newOutputStream(path)) {
+            keyStore.store(out, PASSWORD.toCharArray());
+        }
+        return path;
+    }
+
+    private static byte[] randomKey(int length) {
+        byte[] key = new byte[length];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+
+    // Header lesen, ohne die Signatur zu prüfen
+    private static String kid(String token) {
+        String unsigned = token.substring(0, token.lastIndexOf('.') + 1);
+        return Jwts.parserBuilder().build().parseClaimsJwt(unsigned).getHeader().get("kid").toString();
+    }
+}
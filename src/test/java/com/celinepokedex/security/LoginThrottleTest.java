@@ -0,0 +1,68 @@
+package com.celinepokedex.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginThrottleTest {
+
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    @Test
+    void throttlesUsernameAcrossClientIps() {
+        LoginThrottle throttle = new LoginThrottle(2, HOUR, 100, HOUR);
+
+        assertThat(throttle.tryAcquire("ash", "10.0.0.1")).isZero();
+        assertThat(throttle.tryAcquire("ash", "10.0.0.2")).isZero();
+        assertThat(throttle.tryAcquire("ash", "10.0.0.3")).isPositive();
+        assertThat(throttle.tryAcquire("misty", "10.0.0.3")).isZero();
+    }
+
+    @Test
+    void normalizesUsernameCaseAndWhitespace() {
+        LoginThrottle throttle = new LoginThrottle(2, HOUR, 100, HOUR);
+
+        assertThat(throttle.tryAcquire("Ash", "10.0.0.1")).isZero();
+        assertThat(throttle.tryAcquire("  ASH ", "10.0.0.1")).isZero();
+        assertThat(throttle.tryAcquire("ash", "10.0.0.1")).isPositive();
+    }
+
+    @Test
+    void throttlesClientIpAcrossUsernames() {
+        LoginThrottle throttle = new LoginThrottle(100, HOUR, 2, HOUR);
+
+        assertThat(throttle.tryAcquire("ash", "10.0.0.1")).isZero();
+        assertThat(throttle.tryAcquire("misty", "10.0.0.1")).isZero();
+        assertThat(throttle.tryAcquire("brock", "10.0.0.1")).isPositive();
+        assertThat(throttle.tryAcquire("brock", "10.0.0.2")).isZero();
+    }
+
+    @Test
+    void ipRejectionDoesNotConsumeUsernameToken() {
+        LoginThrottle throttle = new LoginThrottle(1, HOUR, 1, HOUR);
+
+        assertThat(throttle.tryAcquire("misty", "10.0.0.1")).isZero();
+        // IP-Bucket leer: der Versuch darf den Bucket von "ash" nicht leeren
+        assertThat(throttle.tryAcquire("ash", "10.0.0.1")).isPositive();
+        assertThat(throttle.tryAcquire("ash", "10.0.0.2")).isZero();
+    }
+
+    @Test
+    void acceptsMissingUsernameAndIp() {
+        LoginThrottle throttle = new LoginThrottle(1, HOUR, 1, HOUR);
+
+        assertThat(throttle.tryAcquire(null, null)).isZero();
+        assertThat(throttle.tryAcquire(null, null)).isPositive();
+    }
+
+    @Test
+    void retryAfterIsRoundedUpToWholeSeconds() {
+        assertThat(LoginThrottle.toRetryAfterSeconds(Duration.ZERO)).isEqualTo(1);
+        assertThat(LoginThrottle.toRetryAfterSeconds(Duration.ofMillis(1))).isEqualTo(1);
+        assertThat(LoginThrottle.toRetryAfterSeconds(Duration.ofMillis(1000))).isEqualTo(1);
+        assertThat(LoginThrottle.toRetryAfterSeconds(Duration.ofMillis(1001))).isEqualTo(2);
+        assertThat(LoginThrottle.toRetryAfterSeconds(Duration.ofSeconds(12))).isEqualTo(12);
+    }
+}
@@ -0,0 +1,98 @@
+package com.celinepokedex.service;
+
+import com.celinepokedex.model.CatalogVersion;
+import com.celinepokedex.repository.CatalogVersionRepository;
+import com.celinepokedex.service.CatalogVersions.Catalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CatalogVersionsTest {
+
+    private CatalogVersionRepository repository;
+    private ApplicationEventPublisher eventPublisher;
+    private CatalogVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CatalogVersionRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        when(repository.findById("pokemons")).thenReturn(Optional.of(new CatalogVersion("pokemons", 5L, 1000L)));
+        when(repository.findById("characters")).thenReturn(Optional.of(new CatalogVersion("characters", 9L, 1000L)));
+        versions = new CatalogVersions(repository, eventPublisher);
+    }
+
+    @Test
+    void bumpOnlyIncrementsTheSharedCounter() {
+        versions.bump(Catalog.POKEMONS);
+
+        verify(repository).increment(eq("pokemons"), anyLong());
+        verify(repository, never()).findCurrent();
+        verifyNoInteractions(eventPublisher);
+        // Sichtbar wird die neue Version erst mit dem nächsten Poll
+        assertThat(versions.etag(Catalog.POKEMONS)).isEqualTo("\"pokemons-5\"");
+    }
+
+    @Test
+    void pollPublishesNewVersionOnlyAfterListenersRan() {
+        when(repository.findCurrent()).thenReturn(List.of(
+                new CatalogVersion("pokemons", 6L, 2000L), new CatalogVersion("characters", 9L, 1000L)));
+        List<String> etagsSeenByListener = new ArrayList<>();
+        doAnswer(invocation -> etagsSeenByListener.add(versions.etag(Catalog.POKEMONS)))
+                .when(eventPublisher).publishEvent(any(Object.class));
+
+        versions.refresh();
+
+        assertThat(etagsSeenByListener).containsExactly("\"pokemons-5\"");
+        verify(eventPublisher).publishEvent(new CatalogVersionChangedEvent(Catalog.POKEMONS));
+        assertThat(versions.etag(Catalog.POKEMONS)).isEqualTo("\"pokemons-6\"");
+        assertThat(versions.lastModified(Catalog.POKEMONS)).isEqualTo(2000);
+        assertThat(versions.etag(Catalog.CHARACTERS)).isEqualTo("\"characters-9\"");
+    }
+
+    @Test
+    void failedListenerKeepsOldVersionUntilNextPoll() {
+        when(repository.findCurrent()).thenReturn(List.of(
+                new CatalogVersion("pokemons", 6L, 2000L), new CatalogVersion("characters", 10L, 2000L)));
+        doThrow(new IllegalStateException("database down"))
+                .when(eventPublisher).publishEvent(new CatalogVersionChangedEvent(Catalog.POKEMONS));
+
+        versions.refresh();
+
+        assertThat(versions.etag(Catalog.POKEMONS)).isEqualTo("\"pokemons-5\"");
+        // Ein Fehler bei einem Katalog hält die anderen nicht auf
+        assertThat(versions.etag(Catalog.CHARACTERS)).isEqualTo("\"characters-10\"");
+
+        doAnswer(invocation -> null).when(eventPublisher).publishEvent(new CatalogVersionChangedEvent(Catalog.POKEMONS));
+        versions.refresh();
+
+        assertThat(versions.etag(Catalog.POKEMONS)).isEqualTo("\"pokemons-6\"");
+    }
+
+    @Test
+    void ignoresVersionsThatAreNotNewer() {
+        when(repository.findCurrent()).thenReturn(List.of(
+                new CatalogVersion("pokemons", 5L, 1000L), new CatalogVersion("characters", 8L, 500L)));
+
+        versions.refresh();
+
+        verifyNoInteractions(eventPublisher);
+        assertThat(versions.etag(Catalog.CHARACTERS)).isEqualTo("\"characters-9\"");
+    }
+}
@@ -0,0 +1,60 @@
+package com.celinepokedex.service;
+
+import com.celinepokedex.model.GenerationJob;
+import com.celinepokedex.model.GenerationJobStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GenerationJobServiceTest {
+
+    private ImageGenerationService imageGenerationService;
+
+    @BeforeEach
+    void setUp() {
+        imageGenerationService = mock(ImageGenerationService.class);
+        when(imageGenerationService.generateImage("prompt")).thenReturn("https://img/1.png");
+    }
+
+    @Test
+    void sweepRemovesFinishedJobsAfterRetention() throws InterruptedException {
+        GenerationJobService service = new GenerationJobService(imageGenerationService, new SyncTaskExecutor(), Duration.ZERO);
+        GenerationJob job = service.submit("prompt");
+        assertThat(job.getStatus()).isEqualTo(GenerationJobStatus.SUCCEEDED);
+
+        Thread.sleep(2);
+        service.removeExpiredJobs();
+
+        assertThat(service.getJob(job.getId())).isEmpty();
+    }
+
+    @Test
+    void sweepKeepsFinishedJobsWithinRetention() {
+        GenerationJobService service = new GenerationJobService(imageGenerationService, new SyncTaskExecutor(), Duration.ofMinutes(60));
+        GenerationJob job = service.submit("prompt");
+
+        service.removeExpiredJobs();
+
+        assertThat(service.getJob(job.getId())).map(GenerationJob::getImageUrl).contains("https://img/1.png");
+    }
+
+    @Test
+    void sweepKeepsUnfinishedJobs() throws InterruptedException {
+        // Executor nimmt den Job an, führt ihn aber nie aus - er bleibt PENDING
+        TaskExecutor parked = task -> { };
+        GenerationJobService service = new GenerationJobService(imageGenerationService, parked, Duration.ZERO);
+        GenerationJob job = service.submit("prompt");
+
+        Thread.sleep(2);
+        service.removeExpiredJobs();
+
+        assertThat(service.getJob(job.getId())).map(GenerationJob::getStatus).contains(GenerationJobStatus.PENDING);
+    }
+}
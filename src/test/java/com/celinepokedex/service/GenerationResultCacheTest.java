@@ -0,0 +1,84 @@
+package com.celinepokedex.service;
+
+import com.celinepokedex.model.GenerationResult;
+import com.celinepokedex.repository.GenerationResultRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GenerationResultCacheTest {
+
+    private static final String MODEL = "stabilityai/stable-diffusion-xl-base-1.0";
+    private static final String PROMPT = "A magical fantasy character that is a Dragon, with fire powers.";
+
+    @Test
+    void normalizeFoldsCaseWhitespaceAndUnicodeForm() {
+        assertThat(GenerationResultCache.normalize("  A  Dragon,\twith\nFIRE powers. "))
+                .isEqualTo("a dragon, with fire powers.");
+        // NFD ("e" + kombinierender Akut) wird zu NFC
+        assertThat(GenerationResultCache.normalize("Poke\u0301mon")).isEqualTo("pok\u00e9mon");
+    }
+
+    @Test
+    void keyIgnoresCaseWhitespaceAndUnicodeForm() {
+        String key = GenerationResultCache.key(MODEL, PROMPT, 512, 30, 7.5, 42);
+
+        assertThat(GenerationResultCache.key(MODEL, PROMPT.toUpperCase(), 512, 30, 7.5, 42)).isEqualTo(key);
+        assertThat(GenerationResultCache.key(MODEL, "  " + PROMPT.replace(" ", "   ") + "\n", 512, 30, 7.5, 42)).isEqualTo(key);
+        assertThat(GenerationResultCache.key(MODEL, "Pok\u00e9mon", 512, 30, 7.5, 42))
+                .isEqualTo(GenerationResultCache.key(MODEL, "Poke\u0301mon", 512, 30, 7.5, 42));
+    }
+
+    @Test
+    void keyDependsOnEveryGenerationParameter() {
+        String key = GenerationResultCache.key(MODEL, PROMPT, 512, 30, 7.5, 42);
+
+        assertThat(key).hasSize(64);
+        assertThat(GenerationResultCache.key("other/model", PROMPT, 512, 30, 7.5, 42)).isNotEqualTo(key);
+        assertThat(GenerationResultCache.key(MODEL, PROMPT + " Blue.", 512, 30, 7.5, 42)).isNotEqualTo(key);
+        assertThat(GenerationResultCache.key(MODEL, PROMPT, 384, 30, 7.5, 42)).isNotEqualTo(key);
+        assertThat(GenerationResultCache.key(MODEL, PROMPT, 512, 25, 7.5, 42)).isNotEqualTo(key);
+        assertThat(GenerationResultCache.key(MODEL, PROMPT, 512, 30, 8.0, 42)).isNotEqualTo(key);
+        assertThat(GenerationResultCache.key(MODEL, PROMPT, 512, 30, 7.5, 43)).isNotEqualTo(key);
+    }
+
+    @Test
+    void keyKeepsFieldsApart() {
+        // Trennzeichen verhindern, dass sich Werte über Feldgrenzen verschieben
+        assertThat(GenerationResultCache.key(MODEL, PROMPT, 51, 230, 7.5, 42))
+                .isNotEqualTo(GenerationResultCache.key(MODEL, PROMPT, 512, 30, 7.5, 42));
+    }
+
+    @Test
+    void storeKeepsEntryOfParallelIdenticalRequest() {
+        GenerationResultRepository repository = mock(GenerationResultRepository.class);
+        when(repository.save(any(GenerationResult.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        GenerationResultCache cache = new GenerationResultCache(repository, 10);
+
+        assertThatCode(() -> cache.store("key", PROMPT, "https://res.cloudinary.com/x.png", 512, 30, 7.5, 42))
+                .doesNotThrowAnyException();
+        verify(repository, never()).count();
+    }
+
+    @Test
+    void storeEvictsLeastRecentlyUsedBeyondMaxEntries() {
+        GenerationResultRepository repository = mock(GenerationResultRepository.class);
+        when(repository.count()).thenReturn(12L);
+        when(repository.findLeastRecentlyUsedKeys(PageRequest.of(0, 2))).thenReturn(List.of("old1", "old2"));
+        GenerationResultCache cache = new GenerationResultCache(repository, 10);
+
+        cache.store("key", PROMPT, "https://res.cloudinary.com/x.png", 512, 30, 7.5, 42);
+
+        verify(repository).deleteAllByIdInBatch(List.of("old1", "old2"));
+    }
+}
@@ -0,0 +1,163 @@
+package com.celinepokedex.service;
+
+import com.celinepokedex.exception.IndexNotReadyException;
+import com.celinepokedex.model.Pokemon;
+import com.celinepokedex.model.Type;
+import com.celinepokedex.repository.PokemonRepository;
+import com.celinepokedex.service.CatalogVersions.Catalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PokedexIndexTest {
+
+    private PokemonRepository pokemonRepository;
+    private PokedexIndex index;
+
+    @BeforeEach
+    void setUp() {
+        pokemonRepository = mock(PokemonRepository.class);
+        when(pokemonRepository.findAllByOrderByPokedexNumberAsc()).thenReturn(List.of(
+                pokemon("001", "Bisasam", Type.PFLANZE, Type.GIFT),
+                pokemon("004", "Glumanda", Type.FEUER, null),
+                pokemon("025", "Pikachu", Type.ELEKTRO, null),
+                pokemon("026", "Raichu", Type.ELEKTRO, null),
+                pokemon("056", "Menki", Type.KAMPF, null),
+                pokemon("057", "Rasaff", Type.KAMPF, null),
+                pokemon("172", "Pichu", Type.ELEKTRO, null)
+        ));
+        index = new PokedexIndex(pokemonRepository);
+    }
+
+    @Test
+    void lookupsBeforeFirstRebuildAreRejected() {
+        assertThatThrownBy(() -> index.fuzzySearch("pika", null)).isInstanceOf(IndexNotReadyException.class);
+        assertThatThrownBy(() -> index.findAll()).isInstanceOf(IndexNotReadyException.class);
+    }
+
+    @Test
+    void searchMatchesNamePartsCaseInsensitively() {
+        index.rebuild();
+
+        assertThat(names(index.search("CHU", null))).containsExactly("Pikachu", "Raichu", "Pichu");
+        assertThat(names(index.search("pi", null))).containsExactly("Pikachu", "Pichu");
+        assertThat(names(index.search("saff", null))).containsExactly("Rasaff");
+        assertThat(index.search("xyz", null)).isEmpty();
+    }
+
+    @Test
+    void searchHonoursTypeFilter() {
+        index.rebuild();
+
+        assertThat(names(index.search("chu", Set.of(Type.ELEKTRO)))).containsExactly("Pikachu", "Raichu", "Pichu");
+        assertThat(index.search("chu", Set.of(Type.KAMPF))).isEmpty();
+        // Zweittyp zählt mit, mehrere Typen sind eine Oder-Verknüpfung
+        assertThat(names(index.search(null, Set.of(Type.GIFT, Type.FEUER)))).containsExactly("Bisasam", "Glumanda");
+        assertThat(index.search("", null)).hasSize(7);
+    }
+
+    @Test
+    void foldLowerCasesAndReplacesGermanUmlauts() {
+        assertThat(PokedexIndex.fold("Rasäff")).isEqualTo("rasaeff");
+        assertThat(PokedexIndex.fold("ÖLÜ")).isEqualTo("oelue");
+        assertThat(PokedexIndex.fold("Straße")).isEqualTo("strasse");
+    }
+
+    @Test
+    void foldRemovesOtherAccents() {
+        assertThat(PokedexIndex.fold("Pokémon")).isEqualTo("pokemon");
+        // Zerlegte Form (e + kombinierender Akut) ergibt dasselbe
+        assertThat(PokedexIndex.fold("Poke\u0301mon")).isEqualTo("pokemon");
+        assertThat(PokedexIndex.fold(null)).isEmpty();
+    }
+
+    @Test
+    void maxDistanceGrowsWithQueryLength() {
+        assertThat(PokedexIndex.maxDistance("pi")).isZero();
+        assertThat(PokedexIndex.maxDistance("pik")).isEqualTo(1);
+        assertThat(PokedexIndex.maxDistance("pikac")).isEqualTo(1);
+        assertThat(PokedexIndex.maxDistance("pikach")).isEqualTo(2);
+    }
+
+    @Test
+    void fuzzySearchRanksExactBeforeTypoMatches() {
+        index.rebuild();
+
+        assertThat(names(index.fuzzySearch("Pikachu", null))).containsExactly("Pikachu", "Pichu");
+    }
+
+    @Test
+    void fuzzySearchRanksPrefixBeforeSubstringMatches() {
+        index.rebuild();
+
+        // "Pichu" und "Pikachu" beginnen mit "pi", "Raichu" enthält es nicht
+        assertThat(names(index.fuzzySearch("pi", null))).containsExactly("Pikachu", "Pichu");
+        // Gleicher Rang: nach Pokédex-Nummer
+        assertThat(names(index.fuzzySearch("chu", null))).containsExactly("Pikachu", "Raichu", "Pichu");
+        assertThat(names(index.fuzzySearch("ras", null))).containsExactly("Rasaff");
+    }
+
+    @Test
+    void fuzzySearchFindsTyposAndFoldedInput() {
+        index.rebuild();
+
+        assertThat(names(index.fuzzySearch("Pikchu", null))).containsExactly("Pikachu", "Pichu");
+        assertThat(names(index.fuzzySearch("Glumända", null))).containsExactly("Glumanda");
+        assertThat(index.fuzzySearch("xyz", null)).isEmpty();
+    }
+
+    @Test
+    void fuzzySearchHonoursTypeFilter() {
+        index.rebuild();
+
+        assertThat(names(index.fuzzySearch("chu", Set.of(Type.ELEKTRO)))).containsExactly("Pikachu", "Raichu", "Pichu");
+        assertThat(index.fuzzySearch("chu", Set.of(Type.KAMPF))).isEmpty();
+        assertThat(names(index.fuzzySearch("", Set.of(Type.KAMPF)))).containsExactly("Menki", "Rasaff");
+    }
+
+    @Test
+    void findByPokedexNumberAcceptsUnpaddedNumbers() {
+        index.rebuild();
+
+        assertThat(index.findByPokedexNumber("025")).map(Pokemon::getName).contains("Pikachu");
+        assertThat(index.findByPokedexNumber("25")).map(Pokemon::getName).contains("Pikachu");
+        assertThat(index.findByPokedexNumber("999")).isEmpty();
+        assertThat(index.findByPokedexNumber("pika")).isEmpty();
+    }
+
+    @Test
+    void findAllIsSortedByPokedexNumber() {
+        index.rebuild();
+
+        assertThat(index.findAll()).extracting(Pokemon::getPokedexNumber)
+                .containsExactly("001", "004", "025", "026", "056", "057", "172");
+    }
+
+    @Test
+    void rebuildsOnlyForPokemonCatalogVersions() {
+        index.onCatalogVersionChanged(new CatalogVersionChangedEvent(Catalog.CHARACTERS));
+        verify(pokemonRepository, never()).findAllByOrderByPokedexNumberAsc();
+
+        index.onCatalogVersionChanged(new CatalogVersionChangedEvent(Catalog.POKEMONS));
+        verify(pokemonRepository, times(1)).findAllByOrderByPokedexNumberAsc();
+        assertThat(index.findAll()).hasSize(7);
+    }
+
+    private static Pokemon pokemon(String pokedexNumber, String name, Type type1, Type type2) {
+        return new Pokemon(pokedexNumber, name, null, null, null, null, type1, type2, null, null);
+    }
+
+    private static List<String> names(List<Pokemon> pokemon) {
+        return pokemon.stream().map(Pokemon::getName).toList();
+    }
+}
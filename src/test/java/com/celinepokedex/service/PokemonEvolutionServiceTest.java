@@ -0,0 +1,221 @@
+package com.celinepokedex.service;
+
+import com.celinepokedex.client.PokeApiClient;
+import com.celinepokedex.model.EvolutionChain;
+import com.celinepokedex.model.EvolutionChainSnapshot;
+import com.celinepokedex.model.Pokemon;
+import com.celinepokedex.model.Type;
+import com.celinepokedex.repository.EvolutionChainSnapshotRepository;
+import com.celinepokedex.repository.PokemonRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PokemonEvolutionServiceTest {
+
+    private static final int CHAIN_ID = 2;
+
+    // Glumanda -> Glutexo (Level 16), Antwort von /evolution-chain/2 auf das Nötigste gekürzt
+    private static final String CHAIN_JSON = """
+            {"chain": {
+              "species": {"url": "https://pokeapi.co/api/v2/pokemon-species/4/"},
+              "evolves_to": [{
+                "species": {"url": "https://pokeapi.co/api/v2/pokemon-species/5/"},
+                "evolution_details": [{"trigger": {"name": "level-up"}, "min_level": 16}],
+                "evolves_to": []
+              }]
+            }}
+            """;
+
+    // Eigener Mapper für die Testdaten, damit Aufrufe auf den Spy nicht in die Stubs geraten
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @Mock
+    private PokemonRepository pokemonRepository;
+
+    @Mock
+    private PokeApiClient pokeApiClient;
+
+    @Mock
+    private EvolutionChainSnapshotRepository snapshotRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private PokemonEvolutionService service;
+
+    @Test
+    void pokemonWithoutChainHasNoEvolutionChain() {
+        Pokemon pokemon = pokemon("132", "Ditto", null, null);
+
+        assertThat(service.getEvolutionChainForPokemon(pokemon)).isEmpty();
+        verifyNoInteractions(snapshotRepository, pokemonRepository, pokeApiClient);
+    }
+
+    @Test
+    void readsMaterializedChainWithoutBuilding() throws Exception {
+        EvolutionChain chain = new EvolutionChain();
+        chain.setId(CHAIN_ID);
+        chain.addStage(new EvolutionChain.EvolutionStage(glumanda(), null, null));
+        when(snapshotRepository.findById(CHAIN_ID)).thenReturn(Optional.of(
+                new EvolutionChainSnapshot(CHAIN_ID, JSON.writeValueAsString(chain), Set.of("004"))));
+
+        Optional<EvolutionChain> result = service.getEvolutionChainForPokemon(glumanda());
+
+        assertThat(result).isPresent();
+        assertThat(pokedexNumbers(result.get())).containsExactly("004");
+        verifyNoInteractions(pokemonRepository, pokeApiClient);
+        verify(snapshotRepository, never()).save(any());
+    }
+
+    @Test
+    void storesCompleteChainWithItsMembers() throws Exception {
+        when(snapshotRepository.findById(CHAIN_ID)).thenReturn(Optional.empty());
+        when(pokemonRepository.findByEvolutionChainId(CHAIN_ID)).thenReturn(List.of(glumanda(), glutexo()));
+        when(pokeApiClient.fetchEvolutionChain(CHAIN_ID)).thenReturn(chainJson());
+
+        Optional<EvolutionChain> result = service.getEvolutionChainForPokemon(glumanda());
+
+        assertThat(result).isPresent();
+        assertThat(pokedexNumbers(result.get())).containsExactly("004", "005");
+        ArgumentCaptor<EvolutionChainSnapshot> saved = ArgumentCaptor.forClass(EvolutionChainSnapshot.class);
+        verify(snapshotRepository).save(saved.capture());
+        assertThat(saved.getValue().getEvolutionChainId()).isEqualTo(CHAIN_ID);
+        assertThat(saved.getValue().getMemberPokedexNumbers()).containsExactlyInAnyOrder("004", "005");
+        verify(snapshotRepository, never()).deleteById(anyInt());
+    }
+
+    @Test
+    void discardsChainInvalidatedWhileBuilding() throws Exception {
+        when(snapshotRepository.findById(CHAIN_ID)).thenReturn(Optional.empty());
+        when(pokemonRepository.findByEvolutionChainId(CHAIN_ID)).thenReturn(List.of(glumanda(), glutexo()));
+        // Während der Aufbau auf die PokéAPI wartet, wird Glutexo geändert
+        when(pokeApiClient.fetchEvolutionChain(CHAIN_ID)).thenAnswer(invocation -> {
+            service.invalidateEvolutionChains("005", CHAIN_ID);
+            return chainJson();
+        });
+
+        Optional<EvolutionChain> result = service.getEvolutionChainForPokemon(glumanda());
+
+        // Die Antwort selbst ist gültig, nur der Snapshot darf nicht stehen bleiben
+        assertThat(result).isPresent();
+        InOrder order = inOrder(snapshotRepository);
+        order.verify(snapshotRepository).save(any());
+        order.verify(snapshotRepository).deleteById(CHAIN_ID);
+    }
+
+    @Test
+    void invalidationAfterBuildDoesNotAffectLaterBuilds() throws Exception {
+        service.invalidateEvolutionChains("005", CHAIN_ID);
+        when(snapshotRepository.findById(CHAIN_ID)).thenReturn(Optional.empty());
+        when(pokemonRepository.findByEvolutionChainId(CHAIN_ID)).thenReturn(List.of(glumanda(), glutexo()));
+        when(pokeApiClient.fetchEvolutionChain(CHAIN_ID)).thenReturn(chainJson());
+
+        service.getEvolutionChainForPokemon(glumanda());
+
+        verify(snapshotRepository).save(any());
+        verify(snapshotRepository, never()).deleteById(anyInt());
+    }
+
+    @Test
+    void doesNotStoreChainWithPlaceholderMembers() throws Exception {
+        when(snapshotRepository.findById(CHAIN_ID)).thenReturn(Optional.empty());
+        when(pokemonRepository.findByEvolutionChainId(CHAIN_ID)).thenReturn(List.of(glumanda()));
+        when(pokeApiClient.fetchEvolutionChain(CHAIN_ID)).thenReturn(chainJson());
+        when(pokemonRepository.findAllById(any())).thenReturn(List.of());
+        when(pokeApiClient.fetchSpecies("005")).thenThrow(new IOException("PokéAPI nicht erreichbar"));
+
+        Optional<EvolutionChain> result = service.getEvolutionChainForPokemon(glumanda());
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getStages()).extracting(stage -> stage.getPokemon().getName())
+                .contains("Pokemon #005");
+        verify(snapshotRepository, never()).save(any());
+    }
+
+    @Test
+    void doesNotStoreChainBuiltWithoutPokeApi() throws Exception {
+        when(snapshotRepository.findById(CHAIN_ID)).thenReturn(Optional.empty());
+        when(pokemonRepository.findByEvolutionChainId(CHAIN_ID)).thenReturn(List.of(glumanda(), glutexo()));
+        when(pokeApiClient.fetchEvolutionChain(CHAIN_ID)).thenThrow(new IOException("PokéAPI nicht erreichbar"));
+
+        Optional<EvolutionChain> result = service.getEvolutionChainForPokemon(glumanda());
+
+        assertThat(result).isPresent();
+        assertThat(pokedexNumbers(result.get())).containsExactly("004", "005");
+        verify(snapshotRepository, never()).save(any());
+    }
+
+    @Test
+    void invalidationRemovesOwnChainAndChainsListingThePokemon() {
+        List<EvolutionChainSnapshot> listing = List.of(new EvolutionChainSnapshot(7, "{}", Set.of("005")));
+        when(snapshotRepository.existsById(CHAIN_ID)).thenReturn(true);
+        when(snapshotRepository.findByMemberPokedexNumbersContaining("005")).thenReturn(listing);
+
+        service.invalidateEvolutionChains("005", CHAIN_ID);
+
+        verify(snapshotRepository).deleteById(CHAIN_ID);
+        verify(snapshotRepository).deleteAll(listing);
+    }
+
+    @Test
+    void invalidationWithoutChainOnlyRemovesChainsListingThePokemon() {
+        when(snapshotRepository.findByMemberPokedexNumbersContaining("152")).thenReturn(List.of());
+
+        service.invalidateEvolutionChains("152", null);
+
+        verify(snapshotRepository, never()).existsById(any());
+        verify(snapshotRepository, never()).deleteById(anyInt());
+        verify(snapshotRepository).deleteAll(List.of());
+    }
+
+    private static JsonNode chainJson() throws IOException {
+        return JSON.readTree(CHAIN_JSON);
+    }
+
+    private static Pokemon glumanda() {
+        return pokemon("004", "Glumanda", CHAIN_ID, null);
+    }
+
+    private static Pokemon glutexo() {
+        return pokemon("005", "Glutexo", CHAIN_ID, "004");
+    }
+
+    private static Pokemon pokemon(String pokedexNumber, String name, Integer chainId, String evolvesFromId) {
+        Pokemon pokemon = new Pokemon(pokedexNumber, name, null, null, null, null, Type.FEUER, null, null, null);
+        pokemon.setEvolutionChainId(chainId);
+        pokemon.setEvolvesFromId(evolvesFromId);
+        return pokemon;
+    }
+
+    private static List<String> pokedexNumbers(EvolutionChain chain) {
+        return chain.getStages().stream().map(stage -> stage.getPokemon().getPokedexNumber()).toList();
+    }
+}
@@ -0,0 +1,78 @@
+package com.celinepokedex.util;
+
+import com.celinepokedex.model.BaseAnimal;
+import com.celinepokedex.model.CharacterTrait;
+import com.celinepokedex.model.DominantColor;
+import com.celinepokedex.model.ElementType;
+import com.celinepokedex.model.StyleType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and allocation per call of the PromptBuilder methods behind
+ * /generate-description, /generate-name and the image generation prompt.
+ *
+ * Run with: mvn test-compile, then start main() with the test classpath, e.g.
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) com.celinepokedex.util.PromptBuilderBenchmark
+ * after mvn dependency:build-classpath -Dmdep.outputFile=cp.txt. The gc profiler reports
+ * gc.alloc.rate.norm (bytes allocated per call).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptBuilderBenchmark {
+
+    private static final BaseAnimal[] ANIMALS = BaseAnimal.values();
+    private static final ElementType[] ELEMENTS = ElementType.values();
+    private static final DominantColor[] COLORS = DominantColor.values();
+    private static final StyleType[] STYLES = StyleType.values();
+    private static final List<CharacterTrait> TRAITS = List.of(CharacterTrait.CUTE, CharacterTrait.MYSTERIOUS);
+
+    // Eingaben rotieren, damit der JIT keine Konstanten falten kann
+    private int i;
+
+    @Benchmark
+    public String buildPrompt() {
+        int n = i++;
+        return PromptBuilder.buildPrompt(ANIMALS[n % ANIMALS.length], ELEMENTS[n % ELEMENTS.length],
+                COLORS[n % COLORS.length], STYLES[n % STYLES.length], TRAITS);
+    }
+
+    @Benchmark
+    public String generateFantasyDescription() {
+        int n = i++;
+        return PromptBuilder.generateFantasyDescription(ANIMALS[n % ANIMALS.length].name(),
+                ELEMENTS[n % ELEMENTS.length].name(), null);
+    }
+
+    @Benchmark
+    public String generateFantasyName() {
+        int n = i++;
+        return PromptBuilder.generateFantasyName(ANIMALS[n % ANIMALS.length].name(),
+                ELEMENTS[n % ELEMENTS.length].name(), null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PromptBuilderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,124 @@
+package com.celinepokedex.util;
+
+import com.celinepokedex.model.BaseAnimal;
+import com.celinepokedex.model.CharacterTrait;
+import com.celinepokedex.model.DominantColor;
+import com.celinepokedex.model.ElementType;
+import com.celinepokedex.model.StyleType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PromptBuilder must produce exactly what it produced before its tables were precomputed
+ * (BaselinePromptBuilder). Descriptions and names are random, so they are checked against the
+ * set of all results the baseline could return.
+ */
+class PromptBuilderTest {
+
+    // Genug Ziehungen, damit jeder Baustein mit hoher Wahrscheinlichkeit mindestens einmal vorkommt
+    private static final int SAMPLES = 500;
+
+    @Test
+    void buildPromptMatchesBaselineForAllCombinations() {
+        List<DominantColor> colors = new ArrayList<>(Arrays.asList(DominantColor.values()));
+        colors.add(null);
+
+        int combinations = 0;
+        for (BaseAnimal animal : BaseAnimal.values()) {
+            for (ElementType element : ElementType.values()) {
+                for (DominantColor color : colors) {
+                    for (StyleType style : StyleType.values()) {
+                        for (List<CharacterTrait> traits : traitLists()) {
+                            assertThat(PromptBuilder.buildPrompt(animal, element, color, style, traits))
+                                    .isEqualTo(BaselinePromptBuilder.buildPrompt(animal, element, color, style, traits));
+                            combinations++;
+                        }
+                    }
+                }
+                assertThat(PromptBuilder.buildPrompt(animal, element, StyleType.values()[0], null))
+                        .isEqualTo(BaselinePromptBuilder.buildPrompt(animal, element, StyleType.values()[0], null));
+            }
+        }
+        assertThat(combinations).isPositive();
+    }
+
+    @Test
+    void descriptionsMatchBaselineForAllAnimalsAndElements() {
+        for (String animal : withUnknown(BaseAnimal.values(), "UNICORN")) {
+            for (String element : withUnknown(ElementType.values(), "COSMIC")) {
+                assertDescriptions(animal, element, null);
+                assertDescriptions(animal, element, "");
+            }
+        }
+        assertDescriptions("CAT", "FIRE", "Ancient Sphinx");
+        assertDescriptions("cat", "fire", null);
+    }
+
+    @Test
+    void namesMatchBaselineForAllAnimalsAndElements() {
+        for (String animal : withUnknown(BaseAnimal.values(), "UNICORN")) {
+            for (String element : withUnknown(ElementType.values(), "COSMIC")) {
+                assertNames(animal, element, null);
+            }
+        }
+        assertNames("cat", "fire", "Ancient Sphinx");
+    }
+
+    private static void assertDescriptions(String animal, String element, String creature) {
+        Set<String> candidates = BaselinePromptBuilder.fantasyDescriptions(animal, element, creature);
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < SAMPLES; i++) {
+            seen.add(PromptBuilder.generateFantasyDescription(animal, element, creature));
+        }
+        assertThat(candidates).containsAll(seen);
+        // Nicht nur eine Teilmenge: die Auswahl muss auch wirklich variieren
+        assertThat(seen).hasSizeGreaterThan(candidates.size() / 4);
+    }
+
+    private static void assertNames(String animal, String element, String creature) {
+        Set<String> candidates = BaselinePromptBuilder.fantasyNames(animal, element, creature);
+        Set<String> seen = new HashSet<>();
+        boolean withSecondName = false;
+        boolean withoutSecondName = false;
+        for (int i = 0; i < SAMPLES; i++) {
+            String name = PromptBuilder.generateFantasyName(animal, element, creature);
+            seen.add(name);
+            withSecondName |= name.contains(" the ");
+            withoutSecondName |= !name.contains(" ");
+        }
+        assertThat(candidates).containsAll(seen);
+        assertThat(withSecondName).isTrue();
+        assertThat(withoutSecondName).isTrue();
+    }
+
+    private static List<List<CharacterTrait>> traitLists() {
+        CharacterTrait[] traits = CharacterTrait.values();
+        List<List<CharacterTrait>> lists = new ArrayList<>();
+        lists.add(null);
+        lists.add(List.of());
+        for (CharacterTrait trait : traits) {
+            lists.add(List.of(trait));
+        }
+        for (int i = 0; i + 1 < traits.length; i++) {
+            lists.add(List.of(traits[i], traits[i + 1]));
+        }
+        lists.add(List.of(traits));
+        return lists;
+    }
+
+    private static List<String> withUnknown(Enum<?>[] values, String unknown) {
+        List<String> names = new ArrayList<>();
+        for (Enum<?> value : values) {
+            names.add(value.name());
+        }
+        names.add(unknown);
+        return names;
+    }
+}
@@ -0,0 +1,71 @@
+package com.celinepokedex.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StripedTokenBucketsTest {
+
+    // Lang genug, dass während des Tests kein Token nachläuft
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    @Test
+    void allowsBurstUpToCapacityThenReportsWait() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(3, HOUR, 64);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(buckets.tryAcquire("alice")).isZero();
+        }
+        Duration wait = buckets.tryAcquire("alice");
+        assertThat(wait).isPositive().isLessThanOrEqualTo(HOUR);
+    }
+
+    @Test
+    void rejectedAttemptsDoNotTakeTokens() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(1, HOUR, 64);
+
+        assertThat(buckets.tryAcquire("alice")).isZero();
+        Duration first = buckets.tryAcquire("alice");
+        Duration second = buckets.tryAcquire("alice");
+        // Die Wartezeit wächst nicht mit weiteren abgelehnten Versuchen
+        assertThat(second).isLessThanOrEqualTo(first);
+    }
+
+    @Test
+    void refillsOneTokenPerPeriod() throws InterruptedException {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(1, Duration.ofMillis(50), 64);
+
+        assertThat(buckets.tryAcquire("alice")).isZero();
+        assertThat(buckets.tryAcquire("alice")).isPositive();
+        Thread.sleep(60);
+        assertThat(buckets.tryAcquire("alice")).isZero();
+    }
+
+    @Test
+    void keysOnDifferentStripesAreIndependent() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(1, HOUR, 4096);
+
+        assertThat(buckets.tryAcquire("alice")).isZero();
+        assertThat(buckets.tryAcquire("alice")).isPositive();
+        assertThat(buckets.tryAcquire("bob")).isZero();
+    }
+
+    @Test
+    void keysOnTheSameStripeShareOneBucket() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(1, HOUR, 1);
+
+        assertThat(buckets.tryAcquire("alice")).isZero();
+        assertThat(buckets.tryAcquire("bob")).isPositive();
+    }
+
+    @Test
+    void rejectsNonPositiveArguments() {
+        assertThatThrownBy(() -> new StripedTokenBuckets(0, HOUR, 64)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new StripedTokenBuckets(1, Duration.ZERO, 64)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new StripedTokenBuckets(1, Duration.ofSeconds(-1), 64)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new StripedTokenBuckets(1, HOUR, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}